@@ -0,0 +1,62 @@
+package com.badrri.playground.benchmark;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Shared fixtures for benchmarks that exercise the send path without a broker.
+ * MockProducer synchronizes every send, which stands in for the record
+ * accumulator lock of a real producer.
+ */
+final class BenchmarkSupport {
+
+    static final String TOPIC = "text_message";
+    static final int PARTITIONS = 12;
+
+    private BenchmarkSupport() {
+    }
+
+    static <V> ProducerFactory<String, V> mockProducerFactory(Serializer<V> valueSerializer) {
+        MockProducer<String, V> producer =
+                new MockProducer<>(cluster(), true, null, new StringSerializer(), valueSerializer);
+        return new MockProducerFactory<>(() -> producer);
+    }
+
+    static <V> KafkaTemplate<String, V> mockTemplate(Serializer<V> valueSerializer) {
+        return new KafkaTemplate<>(mockProducerFactory(valueSerializer));
+    }
+
+    static KafkaTemplate<String, com.badrri.playground.avro.TextMessage> mockTemplate() {
+        return mockTemplate((topic, data) -> new byte[0]);
+    }
+
+    static com.badrri.playground.avro.TextMessage sampleMessage(int messageId) {
+        return com.badrri.playground.avro.TextMessage.newBuilder()
+                .setTitle("Benchmark Title")
+                .setBody("Benchmark body content that is roughly the size of a typical chat message")
+                .setSender("sender-" + (messageId % 1000))
+                .setReceiver("receiver-" + (messageId % 5000))
+                .setMessageId(messageId)
+                .setIsImportant(messageId % 10 == 0)
+                .build();
+    }
+
+    private static Cluster cluster() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(i -> new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}))
+                .toList();
+        return new Cluster("benchmark", List.of(node), partitions, Set.of(), Set.of());
+    }
+}
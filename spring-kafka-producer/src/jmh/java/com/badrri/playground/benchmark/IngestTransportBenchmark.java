@@ -0,0 +1,160 @@
+package com.badrri.playground.benchmark;
+
+import com.badrri.playground.grpc.GrpcServer;
+import com.badrri.playground.grpc.proto.MessageIngestGrpc;
+import com.badrri.playground.grpc.proto.PublishAck;
+import com.badrri.playground.grpc.proto.PublishRequest;
+import com.badrri.playground.grpc.proto.TextMessage;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second and CPU per message for the REST endpoint (one
+ * HTTP/1.1 JSON request per message over a keep-alive connection) against
+ * the gRPC client-streaming endpoint (one stream per batch), both through
+ * the full application down to a MockProducer with the real serializer.
+ * <p>
+ * {@code cpuNanos / messages} is process CPU per message, client and server
+ * included since both run in this JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IngestTransportBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest[] restRequests;
+    private ManagedChannel channel;
+    private MessageIngestGrpc.MessageIngestStub grpcStub;
+    private PublishRequest[] grpcRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = MockKafkaApplication.start("playground.grpc.enabled=true", "playground.grpc.port=0");
+
+        URI uri = URI.create("http://localhost:" + MockKafkaApplication.httpPort(context) + "/api/messages");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        restRequests = new HttpRequest[BATCH];
+        grpcRequests = new PublishRequest[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            var message = BenchmarkSupport.sampleMessage(i);
+            restRequests[i] = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"title":"%s","body":"%s","sender":"%s","receiver":"%s","messageId":%d,"isImportant":%b}
+                            """.formatted(message.getTitle(), message.getBody(), message.getSender(),
+                            message.getReceiver(), message.getMessageId(), message.getIsImportant())))
+                    .build();
+            grpcRequests[i] = PublishRequest.newBuilder()
+                    .setMessage(TextMessage.newBuilder()
+                            .setTitle(message.getTitle())
+                            .setBody(message.getBody())
+                            .setSender(message.getSender())
+                            .setReceiver(message.getReceiver())
+                            .setMessageId(message.getMessageId())
+                            .setIsImportant(message.getIsImportant()))
+                    .build();
+        }
+
+        int grpcPort = context.getBean(GrpcServer.class).getPort();
+        channel = Grpc.newChannelBuilderForAddress("localhost", grpcPort, InsecureChannelCredentials.create()).build();
+        grpcStub = MessageIngestGrpc.newStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void rest(CpuCounters counters) throws Exception {
+        long cpuBefore = os.getProcessCpuTime();
+        for (HttpRequest request : restRequests) {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 202) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode());
+            }
+        }
+        counters.record(os.getProcessCpuTime() - cpuBefore, BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void grpcStream(CpuCounters counters) throws Exception {
+        long cpuBefore = os.getProcessCpuTime();
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+        StreamObserver<PublishRequest> stream = grpcStub.publish(new StreamObserver<>() {
+            @Override
+            public void onNext(PublishAck value) {
+                ack.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                ack.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        for (PublishRequest request : grpcRequests) {
+            stream.onNext(request);
+        }
+        stream.onCompleted();
+        PublishAck result = ack.get(1, TimeUnit.MINUTES);
+        if (result.getAccepted() != BATCH) {
+            throw new IllegalStateException("Only " + result.getAccepted() + " of " + BATCH + " accepted");
+        }
+        counters.record(os.getProcessCpuTime() - cpuBefore, BATCH);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CpuCounters {
+
+        public long cpuNanos;
+        public long messages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cpuNanos = 0;
+            messages = 0;
+        }
+
+        void record(long cpu, int count) {
+            cpuNanos += cpu;
+            messages += count;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.badrri.playground.benchmark;
+
+import com.badrri.playground.controller.MessageResponses;
+import com.badrri.playground.model.TextMessage;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JSON cost of {@code POST /api/messages}: binding the request
+ * body and encoding the 202 response. {@code defaultBinding} reproduces the
+ * previous path (reflective record binding plus a serialized HashMap);
+ * {@code streamingBinding} is the current one. Allocation per op is reported
+ * by the gc profiler as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonIngestBenchmark {
+
+    private static final byte[] REQUEST = """
+            {"title":"Test","body":"This is a test message","sender":"user 1","receiver":"user 2","messageId":35,"isImportant":false}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Benchmark
+    public byte[] defaultBinding() throws Exception {
+        ReflectiveTextMessage message = objectMapper.readValue(REQUEST, ReflectiveTextMessage.class);
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "Message sent to Kafka topic");
+        response.put("messageId", message.messageId() != null ? message.messageId().toString() : "N/A");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] streamingBinding() throws Exception {
+        TextMessage message = objectMapper.readValue(REQUEST, TextMessage.class);
+        return MessageResponses.accepted(message.messageId());
+    }
+
+    /** Same shape as {@link TextMessage} without the streaming deserializer. */
+    public record ReflectiveTextMessage(
+            String title,
+            String body,
+            String sender,
+            String receiver,
+            Long messageId,
+            Boolean isImportant
+    ) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.badrri.playground.benchmark;
+
+import com.badrri.playground.PlaygroundApplication;
+import com.badrri.playground.tracing.ObservedSerializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the full application with the producer factory swapped for a
+ * MockProducer that still runs the real Avro serializer (against an
+ * in-memory schema registry, and observed like the real one), for
+ * end-to-end transport benchmarks.
+ */
+final class MockKafkaApplication {
+
+    private MockKafkaApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.allow-bean-definition-overriding=true",
+                "spring.kafka.properties.schema.registry.url=mock://benchmark",
+                "playground.warmup.enabled=false",
+                "logging.level.com.badrri.playground=WARN"));
+        properties.addAll(List.of(extraProperties));
+        return new SpringApplicationBuilder(PlaygroundApplication.class, Overrides.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    static int httpPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    static class Overrides {
+
+        @Bean
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ProducerFactory<String, com.badrri.playground.avro.TextMessage> producerFactory(
+                KafkaAvroSerializer avroSerializer, ObservationRegistry observationRegistry) {
+            return BenchmarkSupport.mockProducerFactory(
+                    new ObservedSerializer<>((Serializer) avroSerializer, observationRegistry));
+        }
+    }
+}
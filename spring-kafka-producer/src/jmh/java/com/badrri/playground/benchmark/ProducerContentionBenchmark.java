@@ -0,0 +1,155 @@
+package com.badrri.playground.benchmark;
+
+import com.badrri.playground.service.CoalescingSender;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares direct {@link KafkaTemplate#send} calls from many request threads
+ * against the {@link CoalescingSender} funnel.
+ * <p>
+ * Each invocation publishes {@value #MESSAGES} records split across
+ * {@code producers} threads and waits for every future. The {@code blockedCount}
+ * and {@code blockedMillis} counters report how often (and how long) the
+ * producer threads blocked on monitors, i.e. the lock contention the
+ * coalescing stage is meant to remove.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProducerContentionBenchmark {
+
+    private static final int MESSAGES = 65_536;
+
+    @Param({"64", "128", "256", "512"})
+    public int producers;
+
+    @Param({"direct", "coalesced"})
+    public String mode;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final List<Thread> producerThreads = new CopyOnWriteArrayList<>();
+
+    private KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+    private CoalescingSender coalescingSender;
+    private ExecutorService executor;
+    private com.badrri.playground.avro.TextMessage[] messages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        threadMXBean.setThreadContentionMonitoringEnabled(true);
+        kafkaTemplate = BenchmarkSupport.mockTemplate();
+        coalescingSender = "coalesced".equals(mode) ? new CoalescingSender(kafkaTemplate, 512) : null;
+        executor = Executors.newFixedThreadPool(producers, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            producerThreads.add(thread);
+            return thread;
+        });
+        messages = new com.badrri.playground.avro.TextMessage[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = BenchmarkSupport.sampleMessage(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        if (coalescingSender != null) {
+            coalescingSender.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void publish(ContentionCounters counters) throws Exception {
+        long[] before = blockedTotals();
+        int perProducer = MESSAGES / producers;
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<?>[] done = new CompletableFuture<?>[producers];
+
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            done[p] = CompletableFuture.runAsync(() -> {
+                awaitQuietly(start);
+                CompletableFuture<?>[] sends = new CompletableFuture<?>[perProducer];
+                for (int i = 0; i < perProducer; i++) {
+                    sends[i] = send(messages[offset + i]);
+                }
+                CompletableFuture.allOf(sends).join();
+            }, executor);
+        }
+        start.countDown();
+        CompletableFuture.allOf(done).get(1, TimeUnit.MINUTES);
+
+        long[] after = blockedTotals();
+        counters.blockedCount += after[0] - before[0];
+        counters.blockedMillis += after[1] - before[1];
+    }
+
+    private CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> send(
+            com.badrri.playground.avro.TextMessage message) {
+        String key = String.valueOf(message.getMessageId());
+        return coalescingSender != null
+                ? coalescingSender.send(BenchmarkSupport.TOPIC, key, message)
+                : kafkaTemplate.send(BenchmarkSupport.TOPIC, key, message);
+    }
+
+    private long[] blockedTotals() {
+        long count = 0;
+        long millis = 0;
+        for (Thread thread : producerThreads) {
+            ThreadInfo info = threadMXBean.getThreadInfo(thread.threadId());
+            if (info != null) {
+                count += info.getBlockedCount();
+                millis += info.getBlockedTime();
+            }
+        }
+        return new long[]{count, millis};
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ContentionCounters {
+
+        public long blockedCount;
+        public long blockedMillis;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            blockedCount = 0;
+            blockedMillis = 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.badrri.playground.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST publish throughput with tracing off, at the default 1% head sampling,
+ * and at 100% for collector tail sampling, through the full application down
+ * to a MockProducer. Spans are exported over OTLP/HTTP to an in-process sink
+ * that discards them, so export cost is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TracingOverheadBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"off", "0.01", "1.0"})
+    public String sampling;
+
+    private HttpServer otlpSink;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        otlpSink = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        otlpSink.createContext("/v1/traces", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        otlpSink.start();
+
+        context = "off".equals(sampling)
+                ? MockKafkaApplication.start("management.tracing.enabled=false")
+                : MockKafkaApplication.start(
+                        "management.tracing.enabled=true",
+                        "management.tracing.sampling.probability=" + sampling,
+                        "management.otlp.tracing.endpoint=http://localhost:" + otlpSink.getAddress().getPort()
+                                + "/v1/traces");
+
+        URI uri = URI.create("http://localhost:" + MockKafkaApplication.httpPort(context) + "/api/messages");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = new HttpRequest[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            var message = BenchmarkSupport.sampleMessage(i);
+            requests[i] = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"title":"%s","body":"%s","sender":"%s","receiver":"%s","messageId":%d,"isImportant":%b}
+                            """.formatted(message.getTitle(), message.getBody(), message.getSender(),
+                            message.getReceiver(), message.getMessageId(), message.getIsImportant())))
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        otlpSink.stop(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publish() throws Exception {
+        for (HttpRequest request : requests) {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 202) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode());
+            }
+        }
+    }
+}
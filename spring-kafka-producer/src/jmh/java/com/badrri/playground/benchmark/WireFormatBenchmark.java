@@ -0,0 +1,104 @@
+package com.badrri.playground.benchmark;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.service.IdentifierInternTable;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoded record size and producer-side encode throughput of the v1 schema
+ * against v2, with sender/receiver inline ({@code v2}) and dictionary-encoded
+ * through a warm intern table ({@code v2-interned}). Each op maps and
+ * serializes one record with the Confluent serializer against a mock registry.
+ * <p>
+ * {@code bytes / records} is the average value size including the 5-byte
+ * Schema Registry header; {@code 16384 / that} is records per default-sized
+ * producer batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WireFormatBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"v1", "v2", "v2-interned"})
+    public String format;
+
+    private KafkaAvroSerializer serializer;
+    private IdentifierInternTable internTable;
+    private com.badrri.playground.avro.TextMessage[] messages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = new KafkaAvroSerializer();
+        serializer.configure(Map.of("schema.registry.url", "mock://wire-format-benchmark"), false);
+        internTable = new IdentifierInternTable(
+                BenchmarkSupport.mockTemplate(new StringSerializer()), "text_message.interns", 0, 1_000_000, Map.of());
+
+        messages = new com.badrri.playground.avro.TextMessage[BATCH * 5];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = BenchmarkSupport.sampleMessage(i);
+            // Interns every identifier up front so the benchmark sees the steady state
+            internTable.encode(TextMessageMapper.toV2(messages[i])).join();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializer.close();
+        internTable.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void encode(SizeCounters counters) {
+        long bytes = 0;
+        for (int i = 0; i < BATCH; i++) {
+            com.badrri.playground.avro.TextMessage message = messages[next++ % messages.length];
+            byte[] encoded = switch (format) {
+                case "v1" -> serializer.serialize(BenchmarkSupport.TOPIC, message);
+                case "v2" -> serializer.serialize(BenchmarkSupport.TOPIC, TextMessageMapper.toV2(message));
+                default -> serializer.serialize(BenchmarkSupport.TOPIC,
+                        internTable.encode(TextMessageMapper.toV2(message)).join());
+            };
+            bytes += encoded.length;
+        }
+        counters.record(bytes, BATCH);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SizeCounters {
+
+        public long bytes;
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            records = 0;
+        }
+
+        void record(long encodedBytes, int count) {
+            bytes += encodedBytes;
+            records += count;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.badrri.playground.cluster;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health of one cluster, scored from the acks it returns.
+ * <p>
+ * Keeps exponentially weighted moving averages of ack latency and error rate
+ * and folds them into a score in [0, 1]: the success rate scaled down by how
+ * far the latency average sits above the target. Once the error average
+ * crosses the threshold the cluster is marked down and scores 0 until a probe
+ * reaches it again, since a down cluster gets no traffic to recover on.
+ */
+public class ClusterHealth {
+
+    private final double alpha;
+    private final double latencyTargetNanos;
+    private final double errorThreshold;
+
+    private double latencyEwmaNanos;
+    private double errorEwma;
+    private volatile boolean down;
+    private volatile double score = 1.0;
+
+    public ClusterHealth(double alpha, long latencyTargetMs, double errorThreshold) {
+        this.alpha = alpha;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.errorThreshold = errorThreshold;
+    }
+
+    public synchronized void record(long latencyNanos, boolean succeeded) {
+        errorEwma += alpha * ((succeeded ? 0.0 : 1.0) - errorEwma);
+        // Failures mostly report the delivery timeout, not the cluster's latency
+        if (succeeded) {
+            latencyEwmaNanos = latencyEwmaNanos == 0
+                    ? latencyNanos
+                    : latencyEwmaNanos + alpha * (latencyNanos - latencyEwmaNanos);
+        }
+        if (errorEwma >= errorThreshold) {
+            down = true;
+        }
+        updateScore();
+    }
+
+    /**
+     * Brings a down cluster back after a successful probe, with a clean error history.
+     */
+    public synchronized void markUp() {
+        down = false;
+        errorEwma = 0;
+        updateScore();
+    }
+
+    /**
+     * Takes a cluster out of rotation before any send has failed on it, e.g. when warm-up cannot reach it.
+     */
+    public synchronized void markDown() {
+        down = true;
+        updateScore();
+    }
+
+    public boolean isAvailable() {
+        return !down;
+    }
+
+    public double score() {
+        return score;
+    }
+
+    public synchronized double errorRate() {
+        return errorEwma;
+    }
+
+    public synchronized double latencyMs() {
+        return latencyEwmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private void updateScore() {
+        if (down) {
+            score = 0;
+            return;
+        }
+        double latencyFactor = latencyEwmaNanos <= latencyTargetNanos ? 1.0 : latencyTargetNanos / latencyEwmaNanos;
+        score = (1.0 - errorEwma) * latencyFactor;
+    }
+}
@@ -0,0 +1,107 @@
+package com.badrri.playground.cluster;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One named Kafka cluster: its own producer, an admin client for probing, a
+ * configured weight and the health score built from its acks.
+ */
+public record KafkaCluster(String name,
+                           KafkaTemplate<String, Object> template,
+                           @Nullable Admin admin,
+                           double weight,
+                           ClusterHealth health) implements AutoCloseable {
+
+    /**
+     * Builds the producer and admin client for a cluster. The producer
+     * properties must carry the cluster's bootstrap servers; the value
+     * serializer is shared so every cluster reuses one schema ID cache.
+     */
+    public static KafkaCluster connect(String name,
+                                       Map<String, Object> producerProps,
+                                       Serializer<Object> valueSerializer,
+                                       double weight,
+                                       ClusterHealth health) {
+        return connect(name, producerProps, valueSerializer, weight, health, null);
+    }
+
+    /**
+     * As above, with send-to-ack observations taken from the context's
+     * {@code ObservationRegistry}. The template is not a bean, so it is handed
+     * the context here, along with an admin for its own cluster so spans carry
+     * that cluster's ID rather than the default one's.
+     */
+    public static KafkaCluster connect(String name,
+                                       Map<String, Object> producerProps,
+                                       Serializer<Object> valueSerializer,
+                                       double weight,
+                                       ClusterHealth health,
+                                       @Nullable ApplicationContext applicationContext) {
+        Map<String, Object> configProps = new HashMap<>(producerProps);
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "playground-producer-" + name);
+        DefaultKafkaProducerFactory<String, Object> producerFactory =
+                new DefaultKafkaProducerFactory<>(configProps, StringSerializer::new, () -> valueSerializer, false);
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+        Object bootstrapServers = configProps.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG);
+        if (applicationContext != null) {
+            KafkaAdmin clusterAdmin = new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+            // The cluster ID lookup behind each span gets no more time than the send itself may block
+            Object maxBlockMs = configProps.getOrDefault(ProducerConfig.MAX_BLOCK_MS_CONFIG, 60_000);
+            clusterAdmin.setOperationTimeout(
+                    (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(Long.parseLong(maxBlockMs.toString()))));
+            template.setKafkaAdmin(clusterAdmin);
+            template.setObservationEnabled(true);
+            template.setApplicationContext(applicationContext);
+            template.afterSingletonsInstantiated();
+        }
+
+        Admin admin = Admin.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                AdminClientConfig.CLIENT_ID_CONFIG, "playground-probe-" + name));
+        return new KafkaCluster(name, template, admin, weight, health);
+    }
+
+    /**
+     * Asks the cluster to describe itself, which needs a live broker to answer.
+     */
+    public boolean reachable(Duration timeout) {
+        if (admin == null) {
+            return false;
+        }
+        try {
+            admin.describeCluster(new DescribeClusterOptions().timeoutMs((int) timeout.toMillis()))
+                    .nodes()
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | java.util.concurrent.TimeoutException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        template.getProducerFactory().reset();
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(5));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.badrri.playground.cluster;
+
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes across several named clusters, steered by their health scores.
+ * <p>
+ * In {@code failover} mode everything goes to the first available cluster in
+ * configuration order. In {@code weighted} mode each key is placed by weighted
+ * rendezvous hashing over weight × health, so a key stays on one cluster while
+ * scores are stable and only a share of keys moves when they shift.
+ * <p>
+ * Keys are striped, and each stripe remembers the cluster it last used and the
+ * sends still in flight there. When a stripe's cluster changes, its records
+ * are held back until everything in flight on the old cluster has settled
+ * (including failover retries), so a key's records never overtake each other
+ * across a switchover.
+ * <p>
+ * Retries after a retriable failure go to the next available cluster and are
+ * chained onto the stripe too: a record is retried only once every earlier
+ * record of its stripe has settled, and records sent after the failure is seen
+ * are held until the retry has settled, even while the failing cluster still
+ * scores as available. Records already in flight on the failing cluster when
+ * the failure arrives can still be acked there ahead of the retry; with the
+ * idempotent producer they fail along with it and are retried in order.
+ * <p>
+ * The stripe lock only covers the routing decision; the send itself, which
+ * can block for {@code max.block.ms} on an unreachable cluster, happens after
+ * it is released. Records for one key sent concurrently from different threads
+ * therefore have no defined order among themselves. Held records and retries
+ * run on a small dispatch pool, ordered by the stripe as above. Down clusters
+ * are probed on a thread of their own, since a probe blocks for up to the
+ * probe timeout.
+ */
+public class MultiClusterSender implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiClusterSender.class);
+    private static final int STRIPES = 1024;
+    private static final int DEFAULT_DISPATCH_THREADS = 8;
+    private static final Duration DEFAULT_PROBE_INTERVAL = Duration.ofSeconds(5);
+
+    public enum Mode {
+        FAILOVER, WEIGHTED;
+
+        public static Mode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final List<KafkaCluster> clusters;
+    private final Mode mode;
+    private final Duration probeTimeout;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    // Held records and retries are dispatched here rather than on a cluster's I/O thread
+    private final ExecutorService dispatchExecutor;
+    private final ScheduledExecutorService prober;
+
+    public MultiClusterSender(List<KafkaCluster> clusters, Mode mode, Duration probeTimeout) {
+        this(clusters, mode, DEFAULT_PROBE_INTERVAL, probeTimeout, DEFAULT_DISPATCH_THREADS);
+    }
+
+    public MultiClusterSender(List<KafkaCluster> clusters, Mode mode, Duration probeInterval, Duration probeTimeout,
+                              int dispatchThreads) {
+        if (clusters.isEmpty()) {
+            throw new IllegalArgumentException("At least one cluster is required");
+        }
+        this.clusters = List.copyOf(clusters);
+        this.mode = mode;
+        this.probeTimeout = probeTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "kafka-cluster-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-cluster-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = probeInterval.toMillis();
+        this.prober.scheduleWithFixedDelay(this::probe, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object value) {
+        Stripe stripe = stripes[stripeFor(key)];
+        KafkaCluster target;
+        CompletableFuture<?> earlier;
+        CompletableFuture<SendResult<String, Object>> direct = null;
+        CompletableFuture<SendResult<String, Object>> result;
+        synchronized (stripe) {
+            target = select(key);
+            earlier = stripe.inFlight;
+            boolean switching = stripe.cluster != null && stripe.cluster != target && !stripe.inFlight.isDone();
+            CompletableFuture<?> barrier = switching ? stripe.inFlight : stripe.dispatched;
+
+            if (barrier.isDone()) {
+                // Registered as in flight now, sent once the lock is released
+                direct = new CompletableFuture<>();
+                result = direct;
+            } else {
+                if (switching) {
+                    logger.debug("Holding stripe until cluster [{}] settles before switching to [{}]",
+                            stripe.cluster.name(), target.name());
+                }
+                KafkaCluster heldTarget = target;
+                CompletableFuture<CompletableFuture<SendResult<String, Object>>> dispatch = barrier.handleAsync(
+                        (ignored, ex) -> sendTo(stripe, earlier, heldTarget, topic, key, value), dispatchExecutor);
+                stripe.dispatched = dispatch;
+                result = dispatch.thenCompose(sent -> sent);
+            }
+
+            stripe.cluster = target;
+            stripe.inFlight = stripe.inFlight.isDone() ? result : CompletableFuture.allOf(stripe.inFlight, result);
+        }
+
+        if (direct != null) {
+            CompletableFuture<SendResult<String, Object>> placeholder = direct;
+            sendTo(stripe, earlier, target, topic, key, value).whenComplete((sent, ex) -> {
+                if (ex == null) {
+                    placeholder.complete(sent);
+                } else {
+                    placeholder.completeExceptionally(ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    void probe() {
+        for (KafkaCluster cluster : clusters) {
+            if (!cluster.health().isAvailable() && cluster.reachable(probeTimeout)) {
+                logger.info("Cluster [{}] is reachable again, returning it to rotation", cluster.name());
+                cluster.health().markUp();
+            }
+        }
+    }
+
+    public List<KafkaCluster> clusters() {
+        return clusters;
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+        dispatchExecutor.shutdown();
+        clusters.forEach(KafkaCluster::close);
+    }
+
+    KafkaCluster select(String key) {
+        return mode == Mode.FAILOVER ? firstAvailable(null) : weightedFor(key);
+    }
+
+    private KafkaCluster firstAvailable(KafkaCluster excluded) {
+        for (KafkaCluster cluster : clusters) {
+            if (cluster != excluded && cluster.health().isAvailable()) {
+                return cluster;
+            }
+        }
+        // Everything is down: keep offering to the preferred cluster rather than failing fast
+        return excluded == null ? clusters.get(0) : null;
+    }
+
+    private KafkaCluster weightedFor(String key) {
+        long keyHash = key == null ? 0 : Utils.murmur2(key.getBytes(StandardCharsets.UTF_8));
+        KafkaCluster best = null;
+        double bestRank = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < clusters.size(); i++) {
+            KafkaCluster cluster = clusters.get(i);
+            // Coarse steps keep small latency wobbles from moving keys between clusters
+            double weight = cluster.weight() * Math.ceil(cluster.health().score() * 10) / 10;
+            if (weight <= 0) {
+                continue;
+            }
+            double uniform = ((mix(keyHash << 32 ^ i) >>> 11) + 0.5) * 0x1.0p-53;
+            double rank = -Math.log(uniform) / weight;
+            if (rank < bestRank) {
+                bestRank = rank;
+                best = cluster;
+            }
+        }
+        return best != null ? best : firstAvailable(null);
+    }
+
+    /**
+     * Sends a record and, on a retriable failure, retries it on the next
+     * available cluster once {@code earlier} (every record issued before it on
+     * the stripe) has settled. Later records of the stripe are held until the
+     * retry itself has settled.
+     */
+    private CompletableFuture<SendResult<String, Object>> sendTo(Stripe stripe, CompletableFuture<?> earlier,
+                                                                 KafkaCluster cluster, String topic, String key,
+                                                                 Object value) {
+        return attempt(cluster, topic, key, value).exceptionallyCompose(ex -> {
+            KafkaCluster fallback = isRetriable(ex) ? firstAvailable(cluster) : null;
+            if (fallback == null) {
+                return CompletableFuture.failedFuture(ex);
+            }
+            CompletableFuture<Void> retried = new CompletableFuture<>();
+            synchronized (stripe) {
+                stripe.dispatched = stripe.dispatched.isDone()
+                        ? retried
+                        : CompletableFuture.allOf(stripe.dispatched, retried);
+            }
+            logger.warn("Send to cluster [{}] failed, retrying on [{}]: {}",
+                    cluster.name(), fallback.name(), ex.getMessage());
+            CompletableFuture<SendResult<String, Object>> retry = earlier
+                    .handleAsync((ignored, earlierEx) -> attempt(fallback, topic, key, value), dispatchExecutor)
+                    .thenCompose(sent -> sent);
+            retry.whenComplete((sent, retryEx) -> retried.complete(null));
+            return retry;
+        });
+    }
+
+    private CompletableFuture<SendResult<String, Object>> attempt(KafkaCluster cluster, String topic, String key,
+                                                                  Object value) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> sent;
+        try {
+            sent = cluster.template().send(topic, key, value);
+        } catch (RuntimeException ex) {
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        return sent.whenComplete((result, ex) -> cluster.health().record(System.nanoTime() - start, ex == null));
+    }
+
+    private static boolean isRetriable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripeFor(String key) {
+        return key == null ? 0 : Utils.murmur2(key.getBytes(StandardCharsets.UTF_8)) & (STRIPES - 1);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static final class Stripe {
+
+        private KafkaCluster cluster;
+        // Settles once every send issued for the stripe so far has been acked or failed
+        private CompletableFuture<?> inFlight = CompletableFuture.completedFuture(null);
+        // Completes once the stripe's last held record has been handed to a producer and its retries have settled
+        private CompletableFuture<?> dispatched = CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,47 @@
+package com.badrri.playground.config;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.rest.entities.ErrorMessage;
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaResponse;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.subject.TopicNameStrategy;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection hints for the Avro / Schema Registry stack so the producer works
+ * in a GraalVM native image. Spring AOT picks these up at build time.
+ */
+public class AvroSerializationRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // SpecificData reads SCHEMA$ and instantiates generated records and builders reflectively
+        Stream.of(com.badrri.playground.avro.TextMessage.class, com.badrri.playground.avro.TextMessage.Builder.class,
+                        com.badrri.playground.avro.v2.TextMessage.class,
+                        com.badrri.playground.avro.v2.TextMessage.Builder.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+
+        // Kafka and the Confluent serializer instantiate configured classes by name
+        Stream.of(KafkaAvroSerializer.class, StringSerializer.class, TopicNameStrategy.class, AvroSchemaProvider.class)
+                .forEach(type -> hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        hints.reflection().registerType(
+                TypeReference.of("io.confluent.kafka.serializers.context.NullContextNameStrategy"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Schema Registry REST payloads are bound by Jackson
+        Stream.of(RegisterSchemaRequest.class, RegisterSchemaResponse.class, SchemaString.class,
+                        Schema.class, SchemaReference.class, ErrorMessage.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+    }
+}
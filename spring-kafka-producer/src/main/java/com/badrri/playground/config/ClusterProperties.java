@@ -0,0 +1,33 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code playground.clusters.*}: settings shared by every named cluster. The
+ * per-cluster {@code playground.clusters.<name>.bootstrap-servers} and
+ * {@code weight} are keyed by name, so they are read from the environment
+ * instead.
+ */
+@ConfigurationProperties("playground.clusters")
+public record ClusterProperties(
+        @DefaultValue List<String> names,
+        @DefaultValue("failover") String mode,
+        @DefaultValue("2000") int maxBlockMs,
+        @DefaultValue("3000") int requestTimeoutMs,
+        @DefaultValue("10000") int deliveryTimeoutMs,
+        @DefaultValue("5000") long probeIntervalMs,
+        @DefaultValue("2000") long probeTimeoutMs,
+        @DefaultValue("8") int dispatchThreads,
+        @DefaultValue Health health
+) {
+
+    public record Health(
+            @DefaultValue("0.1") double alpha,
+            @DefaultValue("50") long latencyTargetMs,
+            @DefaultValue("0.5") double errorThreshold
+    ) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.service.CoalescingSender;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.producer.coalescing.enabled", havingValue = "true")
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+
+    @Bean
+    public CoalescingSender coalescingSender(KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate,
+                                             ObjectProvider<ObservationRegistry> observationRegistry,
+                                             CoalescingProperties properties) {
+        return new CoalescingSender(kafkaTemplate, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+                properties.maxBatchSize());
+    }
+}
@@ -0,0 +1,14 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code playground.producer.coalescing.*}: the most queued sends the drainer
+ * hands to the producer in one pass.
+ */
+@ConfigurationProperties("playground.producer.coalescing")
+public record CoalescingProperties(
+        @DefaultValue("512") int maxBatchSize
+) {
+}
@@ -0,0 +1,76 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.delivery.DelayedDeliveryScheduler;
+import com.badrri.playground.service.MessageProducerService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.delivery.enabled", havingValue = "true")
+@EnableConfigurationProperties(DeliveryProperties.class)
+public class DeliveryConfig {
+
+    private final DeliveryProperties properties;
+    private final String bootstrapServers;
+
+    public DeliveryConfig(DeliveryProperties properties,
+                          @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.properties = properties;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    @Bean
+    public NewTopic deliveryTopic() {
+        return TopicBuilder.name(requiredDeliveryTopic()).partitions(1).compact().build();
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> deliveryProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Bean
+    public DelayedDeliveryScheduler delayedDeliveryScheduler(MessageProducerService messageProducerService,
+                                                             KafkaAdmin kafkaAdmin) {
+        kafkaAdmin.createOrModifyTopics(deliveryTopic());
+        return new DelayedDeliveryScheduler(
+                new KafkaTemplate<>(deliveryProducerFactory()),
+                messageProducerService,
+                requiredDeliveryTopic(),
+                properties.tickMs(),
+                properties.maxDelayMs(),
+                properties.maxPending(),
+                properties.releaseBatchSize(),
+                properties.retryDelayMs(),
+                DelayedDeliveryScheduler.readTopic(KafkaProducerConfig.compactedTopicReaderProps(bootstrapServers),
+                        requiredDeliveryTopic(), Duration.ofSeconds(60)));
+    }
+
+    // Every instance replays its whole schedule topic on startup, so a shared default would deliver twice
+    private String requiredDeliveryTopic() {
+        if (properties.topic() == null || properties.topic().isBlank()) {
+            throw new IllegalStateException(
+                    "playground.delivery.topic must be set to a topic used only by this producer instance");
+        }
+        return properties.topic();
+    }
+}
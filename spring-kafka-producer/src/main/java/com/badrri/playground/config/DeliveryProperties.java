@@ -0,0 +1,19 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code playground.delivery.*}. {@code topic} has no default; each producer
+ * instance needs a schedule topic of its own.
+ */
+@ConfigurationProperties("playground.delivery")
+public record DeliveryProperties(
+        String topic,
+        @DefaultValue("100") long tickMs,
+        @DefaultValue("2592000000") long maxDelayMs,
+        @DefaultValue("5000000") int maxPending,
+        @DefaultValue("5000") int releaseBatchSize,
+        @DefaultValue("5000") long retryDelayMs
+) {
+}
@@ -0,0 +1,66 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.service.IdentifierInternTable;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.wire-format.intern.enabled", havingValue = "true")
+@EnableConfigurationProperties(InternProperties.class)
+public class InternConfig {
+
+    private final InternProperties properties;
+    private final String bootstrapServers;
+
+    public InternConfig(InternProperties properties,
+                        @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.properties = properties;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    @Bean
+    public NewTopic internTopic() {
+        return TopicBuilder.name(properties.topic()).partitions(1).compact().build();
+    }
+
+    @Bean
+    public ProducerFactory<String, String> internProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), new StringSerializer());
+    }
+
+    @Bean
+    public IdentifierInternTable identifierInternTable(KafkaAdmin kafkaAdmin) {
+        // A shared default would let two instances hand out the same ID for different identifiers
+        if (properties.instanceId() == null) {
+            throw new IllegalStateException(
+                    "playground.wire-format.intern.instance-id must be set to a value unique to this producer instance");
+        }
+        // KafkaAdmin creates NewTopic beans only after every singleton exists, too late for the read below
+        kafkaAdmin.createOrModifyTopics(internTopic());
+        return new IdentifierInternTable(
+                new KafkaTemplate<>(internProducerFactory()),
+                properties.topic(),
+                properties.instanceId(),
+                properties.maxEntries(),
+                IdentifierInternTable.readTopic(KafkaProducerConfig.compactedTopicReaderProps(bootstrapServers),
+                        properties.topic(), Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code playground.wire-format.intern.*}. {@code instanceId} has no default;
+ * it must be unique to each producer instance.
+ */
+@ConfigurationProperties("playground.wire-format.intern")
+public record InternProperties(
+        @DefaultValue("text_message.interns") String topic,
+        Integer instanceId,
+        @DefaultValue("1000000") int maxEntries
+) {
+}
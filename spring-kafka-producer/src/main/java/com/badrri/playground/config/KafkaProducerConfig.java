@@ -1,39 +1,113 @@
 package com.badrri.playground.config;
 
+import com.badrri.playground.tracing.ObservedSerializer;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientFactory;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * The schema registry client and the default producer shared by every
+ * publishing path. Each optional feature has a configuration of its own,
+ * bound to its {@code playground.*} properties and created only when that
+ * feature is enabled.
+ */
 @Configuration
+@ImportRuntimeHints(AvroSerializationRuntimeHints.class)
 public class KafkaProducerConfig {
 
+    private final ObservationRegistry observationRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.properties.schema.registry.url}")
     private String schemaRegistryUrl;
 
+    // The default producer is the outbox relay's, so it needs the relay's delivery guarantees
+    @Value("${playground.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    public KafkaProducerConfig(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+
     @Bean
+    public SchemaRegistryClient schemaRegistryClient() {
+        return SchemaRegistryClientFactory.newClient(
+                List.of(schemaRegistryUrl),
+                AbstractKafkaSchemaSerDeConfig.MAX_SCHEMAS_PER_SUBJECT_DEFAULT,
+                List.of(new AvroSchemaProvider()),
+                Map.of(),
+                Map.of());
+    }
+
+    // Shared with the warm-up so the schema ID cache and JIT profile it builds are the ones the producer uses
+    @Bean
+    public KafkaAvroSerializer avroSerializer() {
+        return new KafkaAvroSerializer(schemaRegistryClient(), Map.of("schema.registry.url", schemaRegistryUrl));
+    }
+
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public ProducerFactory<String, com.badrri.playground.avro.TextMessage> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
         configProps.put("schema.registry.url", schemaRegistryUrl);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        if (outboxEnabled) {
+            // Relay retries must neither duplicate nor reorder what the outbox already holds in order
+            configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+            configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        }
+        Serializer<com.badrri.playground.avro.TextMessage> valueSerializer =
+                new ObservedSerializer<>((Serializer) avroSerializer(), observationRegistry);
+        return new DefaultKafkaProducerFactory<>(configProps, StringSerializer::new, () -> valueSerializer, false);
     }
 
     @Bean
     public KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, com.badrri.playground.avro.TextMessage> template = new KafkaTemplate<>(producerFactory());
+        // Send-to-ack spans, with W3C trace context written into the record headers
+        template.setObservationEnabled(true);
+        return template;
+    }
+
+    // Same producer instance as the v1 template, so both formats share batches and connections
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KafkaTemplate<String, com.badrri.playground.avro.v2.TextMessage> v2KafkaTemplate() {
+        KafkaTemplate<String, com.badrri.playground.avro.v2.TextMessage> template =
+                new KafkaTemplate<>((ProducerFactory) producerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+
+    // An auto-created topic would get the broker's delete policy, so a missing topic must fail the read instead
+    static Map<String, Object> compactedTopicReaderProps(String bootstrapServers) {
+        return Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
     }
 }
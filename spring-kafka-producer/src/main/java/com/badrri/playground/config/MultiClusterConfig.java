@@ -0,0 +1,67 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.cluster.ClusterHealth;
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.tracing.ObservedSerializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.clusters.enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class MultiClusterConfig {
+
+    /**
+     * One producer per named cluster, each with bootstrap servers, weight and
+     * health settings under {@code playground.clusters.<name>.*}. Short send
+     * timeouts make a lost cluster show up as failures within seconds rather
+     * than the producer's default two minutes.
+     */
+    @Bean
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public MultiClusterSender multiClusterSender(ClusterProperties properties,
+                                                 KafkaAvroSerializer avroSerializer,
+                                                 ObjectProvider<ObservationRegistry> observationRegistry,
+                                                 @Value("${spring.kafka.properties.schema.registry.url}") String schemaRegistryUrl,
+                                                 Environment environment,
+                                                 ApplicationContext applicationContext) {
+        Serializer<Object> valueSerializer = new ObservedSerializer<>((Serializer) avroSerializer,
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        ClusterProperties.Health healthProperties = properties.health();
+        List<KafkaCluster> clusters = new ArrayList<>();
+        for (String name : properties.names()) {
+            String prefix = "playground.clusters." + name + ".";
+            Map<String, Object> configProps = new HashMap<>();
+            configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                    environment.getRequiredProperty(prefix + "bootstrap-servers"));
+            configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, properties.maxBlockMs());
+            configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, properties.requestTimeoutMs());
+            configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, properties.deliveryTimeoutMs());
+            configProps.put("schema.registry.url", schemaRegistryUrl);
+            ClusterHealth health = new ClusterHealth(healthProperties.alpha(), healthProperties.latencyTargetMs(),
+                    healthProperties.errorThreshold());
+            clusters.add(KafkaCluster.connect(name, configProps, valueSerializer,
+                    environment.getProperty(prefix + "weight", Double.class, 1.0), health, applicationContext));
+        }
+        return new MultiClusterSender(clusters, MultiClusterSender.Mode.parse(properties.mode()),
+                Duration.ofMillis(properties.probeIntervalMs()), Duration.ofMillis(properties.probeTimeoutMs()),
+                properties.dispatchThreads());
+    }
+}
@@ -0,0 +1,61 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.routing.MessageRouter;
+import com.badrri.playground.service.MulticastSender;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.multicast.enabled", havingValue = "true")
+@EnableConfigurationProperties(MulticastProperties.class)
+public class MulticastConfig {
+
+    private final MulticastProperties properties;
+    private final String bootstrapServers;
+
+    public MulticastConfig(MulticastProperties properties,
+                           @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.properties = properties;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    // Values arrive already Avro-encoded; larger batches suit the bursts one multicast produces
+    @Bean
+    public ProducerFactory<String, byte[]> multicastProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.batchSize());
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, properties.lingerMs());
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    // A bean so the template picks up the ObservationRegistry once the context is up
+    @Bean
+    public KafkaTemplate<String, byte[]> multicastKafkaTemplate() {
+        KafkaTemplate<String, byte[]> template = new KafkaTemplate<>(multicastProducerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+
+    @Bean
+    public MulticastSender multicastSender(SchemaRegistryClient schemaRegistryClient,
+                                           MessageRouter messageRouter,
+                                           @Value("${playground.wire-format:v1}") String wireFormat,
+                                           @Value("${playground.wire-format.shadow-topic-suffix:.v2}") String shadowTopicSuffix) {
+        return new MulticastSender(multicastKafkaTemplate(), schemaRegistryClient, messageRouter, wireFormat,
+                shadowTopicSuffix, properties.maxReceivers());
+    }
+}
@@ -0,0 +1,16 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code playground.multicast.*}: the receiver limit per request and the
+ * batching of the multicast producer.
+ */
+@ConfigurationProperties("playground.multicast")
+public record MulticastProperties(
+        @DefaultValue("10000") int maxReceivers,
+        @DefaultValue("262144") int batchSize,
+        @DefaultValue("5") int lingerMs
+) {
+}
@@ -0,0 +1,42 @@
+package com.badrri.playground.config;
+
+import com.badrri.playground.outbox.OutboxRelay;
+import com.badrri.playground.outbox.OutboxStore;
+import com.badrri.playground.service.MessageProducerService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "playground.outbox.enabled", havingValue = "true")
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    private final OutboxProperties properties;
+
+    public OutboxConfig(OutboxProperties properties) {
+        // RocksDB loads its JNI library from the jar and calls back into Java; the native image has no metadata for it
+        if (NativeDetector.inNativeImage()) {
+            throw new IllegalStateException("playground.outbox.enabled is not supported in the native image");
+        }
+        this.properties = properties;
+    }
+
+    @Bean
+    public OutboxStore outboxStore() {
+        return new OutboxStore(Path.of(properties.path()), properties.maxBatchSize(), properties.maxPending(),
+                Duration.ofMillis(properties.commitTimeoutMs()));
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(MessageProducerService messageProducerService) {
+        OutboxProperties.Relay relay = properties.relay();
+        return new OutboxRelay(outboxStore(), messageProducerService, relay.maxInFlight(), relay.readBatchSize(),
+                relay.retryDelayMs());
+    }
+}
@@ -0,0 +1,25 @@
+package com.badrri.playground.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code playground.outbox.*}: the local store's group commit limits and the
+ * relay that publishes from it.
+ */
+@ConfigurationProperties("playground.outbox")
+public record OutboxProperties(
+        @DefaultValue("data/outbox") String path,
+        @DefaultValue("1024") int maxBatchSize,
+        @DefaultValue("65536") int maxPending,
+        @DefaultValue("5000") long commitTimeoutMs,
+        @DefaultValue Relay relay
+) {
+
+    public record Relay(
+            @DefaultValue("10000") int maxInFlight,
+            @DefaultValue("1000") int readBatchSize,
+            @DefaultValue("1000") long retryDelayMs
+    ) {
+    }
+}
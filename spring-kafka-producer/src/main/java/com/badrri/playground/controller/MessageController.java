@@ -1,20 +1,34 @@
 package com.badrri.playground.controller;
 
+import com.badrri.playground.delivery.DelayedDeliveryScheduler;
+import com.badrri.playground.jfr.MessageMappingEvent;
+import com.badrri.playground.model.MulticastMessage;
 import com.badrri.playground.model.TextMessage;
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.outbox.OutboxStore;
 import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.service.MulticastSender;
+import com.badrri.playground.service.SenderRateLimiter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -22,38 +36,238 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageProducerService messageProducerService;
+    private final SenderRateLimiter senderRateLimiter;
+    private final DelayedDeliveryScheduler deliveryScheduler;
+    private final MulticastSender multicastSender;
+    private final OutboxStore outboxStore;
+    private final ObservationRegistry observationRegistry;
+    private final long schedulePersistTimeoutMs;
 
-    public MessageController(MessageProducerService messageProducerService) {
+    public MessageController(MessageProducerService messageProducerService,
+                             @Nullable SenderRateLimiter senderRateLimiter,
+                             @Nullable DelayedDeliveryScheduler deliveryScheduler,
+                             @Nullable MulticastSender multicastSender,
+                             @Nullable OutboxStore outboxStore,
+                             ObservationRegistry observationRegistry,
+                             @Value("${playground.delivery.persist-timeout-ms:5000}") long schedulePersistTimeoutMs) {
         this.messageProducerService = messageProducerService;
+        this.senderRateLimiter = senderRateLimiter;
+        this.deliveryScheduler = deliveryScheduler;
+        this.multicastSender = multicastSender;
+        this.outboxStore = outboxStore;
+        this.observationRegistry = observationRegistry;
+        this.schedulePersistTimeoutMs = schedulePersistTimeoutMs;
     }
 
     @PostMapping
     @Operation(
         summary = "Publish a message to Kafka",
-        description = "Publishes a text message to the 'text_message' Kafka topic"
+        description = "Publishes a text message to the 'text_message' Kafka topic, at deliverAt if that is in the future"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "202", description = "Message accepted for publishing"),
-        @ApiResponse(responseCode = "400", description = "Invalid message format")
+        @ApiResponse(responseCode = "400", description = "Invalid message format, a messageId the wire format cannot carry, a deliverAt that cannot be scheduled, or no sender/receiver on a scheduled message or in outbox mode"),
+        @ApiResponse(responseCode = "429", description = "Sender is over its rate limit"),
+        @ApiResponse(responseCode = "503", description = "The delivery schedule is full or could not store the message, or the outbox could not store the message")
     })
-    public ResponseEntity<Map<String, String>> publishMessage(@RequestBody TextMessage message) {
-        // Convert REST DTO to Avro message
-        com.badrri.playground.avro.TextMessage avroMessage =
-            com.badrri.playground.avro.TextMessage.newBuilder()
-                .setTitle(message.title())
-                .setBody(message.body())
-                .setSender(message.sender())
-                .setReceiver(message.receiver())
-                .setMessageId(message.messageId())
-                .setIsImportant(message.isImportant())
-                .build();
-
-        messageProducerService.sendMessage(avroMessage);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "Message sent to Kafka topic");
-        response.put("messageId", message.messageId() != null ? message.messageId().toString() : "N/A");
-
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    public ResponseEntity<byte[]> publishMessage(@RequestBody TextMessage message) {
+        ResponseEntity<byte[]> rateLimited = rateLimit(message.sender(), 1);
+        if (rateLimited != null) {
+            return rateLimited;
+        }
+
+        if (message.deliverAt() != null && message.deliverAt().toEpochMilli() > System.currentTimeMillis()) {
+            return schedule(message);
+        }
+        if (outboxStore != null) {
+            return commitToOutbox(message);
+        }
+
+        // Convert REST DTO to Avro message; IDs past the v1 int range need the v2 schema
+        MessageMappingEvent mappingEvent = MessageMappingEvent.start();
+        if (TextMessageMapper.fitsV1(message.messageId())) {
+            com.badrri.playground.avro.TextMessage avroMessage =
+                mapping().observe(() -> TextMessageMapper.toAvro(message));
+            mappingEvent.finish(message.messageId());
+            messageProducerService.sendMessage(avroMessage);
+        } else {
+            com.badrri.playground.avro.v2.TextMessage avroMessage =
+                mapping().observe(() -> TextMessageMapper.toAvroV2(message));
+            mappingEvent.finish(message.messageId());
+            try {
+                messageProducerService.sendMessageV2(avroMessage);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(MessageResponses.messageIdOutOfRange());
+            }
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(MessageResponses.accepted(message.messageId()));
+    }
+
+    @PostMapping("/multicast")
+    @Operation(
+        summary = "Publish one message to many receivers",
+        description = "Publishes one record per receiver, keyed by receiver; the shared fields are serialized once"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Message accepted for publishing to every receiver"),
+        @ApiResponse(responseCode = "400", description = "Invalid message format, too few or too many receivers, no sender, a messageId the wire format cannot carry, or multicast disabled or unavailable in outbox mode"),
+        @ApiResponse(responseCode = "429", description = "Sender is over its rate limit")
+    })
+    public ResponseEntity<byte[]> publishMulticast(@RequestBody MulticastMessage message) {
+        // Multicast sends straight to Kafka, so a 202 here would not carry the outbox's durability promise
+        if (outboxStore != null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.multicastUnavailableInOutboxMode());
+        }
+        if (multicastSender == null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.multicastDisabled());
+        }
+        if (message.receivers() == null || message.receivers().isEmpty()
+                || message.receivers().size() > multicastSender.maxReceivers()
+                || message.receivers().contains(null)) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.receiversOutOfRange());
+        }
+        // The v1 schema requires a sender; failing to encode one later would surface as a 500
+        if (message.sender() == null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.senderRequired());
+        }
+        // Each receiver gets its own record, so each one counts against the sender's rate
+        ResponseEntity<byte[]> rateLimited = rateLimit(message.sender(), message.receivers().size());
+        if (rateLimited != null) {
+            return rateLimited;
+        }
+
+        // The v2 schema carries any ID; the sender narrows to v1 if the wire format needs it
+        MessageMappingEvent mappingEvent = MessageMappingEvent.start();
+        com.badrri.playground.avro.v2.TextMessage avroMessage =
+            mapping().observe(() -> TextMessageMapper.toAvroV2(message.withoutReceiver()));
+        mappingEvent.finish(message.messageId());
+        try {
+            multicastSender.send(avroMessage, message.receivers());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.messageIdOutOfRange());
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(MessageResponses.accepted(message.messageId()));
+    }
+
+    // 202 only once the message is synced to the local outbox; the relay publishes it from there
+    private ResponseEntity<byte[]> commitToOutbox(TextMessage message) {
+        ResponseEntity<byte[]> unpublishable = rejectUnpublishable(message);
+        if (unpublishable != null) {
+            return unpublishable;
+        }
+
+        MessageMappingEvent mappingEvent = MessageMappingEvent.start();
+        com.badrri.playground.avro.v2.TextMessage avroMessage =
+            mapping().observe(() -> TextMessageMapper.toAvroV2(message));
+        mappingEvent.finish(message.messageId());
+        try {
+            outboxStore.commit(avroMessage);
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.outboxUnavailable());
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(MessageResponses.accepted(message.messageId()));
+    }
+
+    // Scheduled messages are kept in the v2 schema, which carries any ID; the wire format applies on release.
+    // 202 only once the message is in the schedule topic, so it survives a restart
+    private ResponseEntity<byte[]> schedule(TextMessage message) {
+        if (deliveryScheduler == null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.schedulingDisabled());
+        }
+        ResponseEntity<byte[]> unpublishable = rejectUnpublishable(message);
+        if (unpublishable != null) {
+            return unpublishable;
+        }
+
+        MessageMappingEvent mappingEvent = MessageMappingEvent.start();
+        com.badrri.playground.avro.v2.TextMessage avroMessage =
+            mapping().observe(() -> TextMessageMapper.toAvroV2(message));
+        mappingEvent.finish(message.messageId());
+        try {
+            deliveryScheduler.schedule(avroMessage, message.deliverAt().toEpochMilli())
+                .get(schedulePersistTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.deliverAtOutOfRange());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.scheduleFull());
+        } catch (ExecutionException | TimeoutException | InterruptedException ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.scheduleUnavailable());
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(MessageResponses.accepted(message.messageId()));
+    }
+
+    // Outbox and scheduled messages are published after the 202, where a failure can no longer reach the client,
+    // so anything the wire format would reject is turned away here instead
+    @Nullable
+    private ResponseEntity<byte[]> rejectUnpublishable(TextMessage message) {
+        // Publishing uses the v1 schema where it can, which has no room for a missing party
+        if (message.sender() == null || message.receiver() == null) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.senderAndReceiverRequired());
+        }
+        if (!messageProducerService.canCarry(message.messageId())) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(MessageResponses.messageIdOutOfRange());
+        }
+        return null;
+    }
+
+    @Nullable
+    private ResponseEntity<byte[]> rateLimit(String sender, int permits) {
+        if (senderRateLimiter == null) {
+            return null;
+        }
+        long waitNanos = senderRateLimiter.tryAcquire(sender, permits);
+        if (waitNanos <= 0) {
+            return null;
+        }
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(MessageResponses.rateLimited());
+    }
+
+    private Observation mapping() {
+        return Observation.createNotStarted("playground.message.mapping", observationRegistry);
     }
 }
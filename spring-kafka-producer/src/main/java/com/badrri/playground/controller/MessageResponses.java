@@ -0,0 +1,104 @@
+package com.badrri.playground.controller;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pre-encoded JSON bodies for the publish endpoints. Only the message ID is
+ * spliced in per request, so no map or object mapper is involved.
+ */
+public final class MessageResponses {
+
+    private static final byte[] ACCEPTED_PREFIX =
+            "{\"status\":\"Message sent to Kafka topic\",\"messageId\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ACCEPTED_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ACCEPTED_WITHOUT_ID = accepted("N/A");
+    private static final byte[] RATE_LIMITED =
+            "{\"status\":\"Rate limit exceeded for sender\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_ID_OUT_OF_RANGE =
+            "{\"status\":\"messageId does not fit the configured wire format\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SCHEDULING_DISABLED =
+            "{\"status\":\"deliverAt is not enabled on this producer\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DELIVER_AT_OUT_OF_RANGE =
+            "{\"status\":\"deliverAt is too far in the future\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SCHEDULE_FULL =
+            "{\"status\":\"Delivery schedule is full\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SCHEDULE_UNAVAILABLE =
+            "{\"status\":\"Message could not be stored in the delivery schedule\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OUTBOX_UNAVAILABLE =
+            "{\"status\":\"Message could not be stored in the outbox\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SENDER_AND_RECEIVER_REQUIRED =
+            "{\"status\":\"sender and receiver are required\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SENDER_REQUIRED =
+            "{\"status\":\"sender is required\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MULTICAST_UNAVAILABLE_IN_OUTBOX_MODE =
+            "{\"status\":\"Multicast is not available while outbox mode is enabled\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MULTICAST_DISABLED =
+            "{\"status\":\"Multicast is not enabled on this producer\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RECEIVERS_OUT_OF_RANGE =
+            "{\"status\":\"receivers must list 1 to the configured maximum of non-null receivers\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private MessageResponses() {
+    }
+
+    public static byte[] accepted(Long messageId) {
+        return messageId != null ? accepted(messageId.toString()) : ACCEPTED_WITHOUT_ID;
+    }
+
+    public static byte[] rateLimited() {
+        return RATE_LIMITED;
+    }
+
+    public static byte[] messageIdOutOfRange() {
+        return MESSAGE_ID_OUT_OF_RANGE;
+    }
+
+    public static byte[] schedulingDisabled() {
+        return SCHEDULING_DISABLED;
+    }
+
+    public static byte[] deliverAtOutOfRange() {
+        return DELIVER_AT_OUT_OF_RANGE;
+    }
+
+    public static byte[] scheduleFull() {
+        return SCHEDULE_FULL;
+    }
+
+    public static byte[] scheduleUnavailable() {
+        return SCHEDULE_UNAVAILABLE;
+    }
+
+    public static byte[] outboxUnavailable() {
+        return OUTBOX_UNAVAILABLE;
+    }
+
+    public static byte[] senderAndReceiverRequired() {
+        return SENDER_AND_RECEIVER_REQUIRED;
+    }
+
+    public static byte[] senderRequired() {
+        return SENDER_REQUIRED;
+    }
+
+    public static byte[] multicastUnavailableInOutboxMode() {
+        return MULTICAST_UNAVAILABLE_IN_OUTBOX_MODE;
+    }
+
+    public static byte[] multicastDisabled() {
+        return MULTICAST_DISABLED;
+    }
+
+    public static byte[] receiversOutOfRange() {
+        return RECEIVERS_OUT_OF_RANGE;
+    }
+
+    private static byte[] accepted(String messageId) {
+        byte[] id = messageId.getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[ACCEPTED_PREFIX.length + id.length + ACCEPTED_SUFFIX.length];
+        System.arraycopy(ACCEPTED_PREFIX, 0, body, 0, ACCEPTED_PREFIX.length);
+        System.arraycopy(id, 0, body, ACCEPTED_PREFIX.length, id.length);
+        System.arraycopy(ACCEPTED_SUFFIX, 0, body, ACCEPTED_PREFIX.length + id.length, ACCEPTED_SUFFIX.length);
+        return body;
+    }
+}
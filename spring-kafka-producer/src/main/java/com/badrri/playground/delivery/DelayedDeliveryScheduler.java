@@ -0,0 +1,328 @@
+package com.badrri.playground.delivery;
+
+import com.badrri.playground.service.MessageProducerService;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds messages until their {@code deliverAt} time, then publishes them.
+ * <p>
+ * Pending messages sit in a {@link TimingWheel} as their encoded bytes, so
+ * scheduling is O(1) and each entry costs its payload plus one small node.
+ * Every message is first written to a compacted schedule topic and only
+ * enters the wheel once that write is acknowledged; the topic is read back on
+ * startup, and a message's record is deleted with a tombstone once it has
+ * been published. Each tick releases up to a batch of due messages through
+ * {@link MessageProducerService}; the rest wait for the next tick. A failed
+ * publish goes back into the wheel for {@code retryDelayMs}; only a message
+ * that cannot be decoded or carried in the configured wire format is dropped.
+ * The schedule topic must not be shared between producer instances.
+ */
+public class DelayedDeliveryScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DelayedDeliveryScheduler.class);
+    private static final int WHEEL_BITS = 9;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MessageProducerService messageProducerService;
+    private final String topic;
+    private final long maxDelayMs;
+    private final int maxPending;
+    private final int releaseBatchSize;
+    private final long retryDelayMs;
+    private final LongSupplier clock;
+    private final TimingWheel wheel;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong nextId;
+    private final ScheduledExecutorService ticker;
+
+    // Due entries not yet released, oldest first, chained through Entry.next; guarded by wheel
+    private TimingWheel.Entry due;
+    private TimingWheel.Entry dueTail;
+
+    public DelayedDeliveryScheduler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                    MessageProducerService messageProducerService,
+                                    String topic,
+                                    long tickMs,
+                                    long maxDelayMs,
+                                    int maxPending,
+                                    int releaseBatchSize,
+                                    long retryDelayMs,
+                                    Map<Long, byte[]> existing) {
+        this(kafkaTemplate, messageProducerService, topic, tickMs, maxDelayMs, maxPending, releaseBatchSize,
+                retryDelayMs, existing, System::currentTimeMillis, true);
+    }
+
+    DelayedDeliveryScheduler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                             MessageProducerService messageProducerService,
+                             String topic,
+                             long tickMs,
+                             long maxDelayMs,
+                             int maxPending,
+                             int releaseBatchSize,
+                             long retryDelayMs,
+                             Map<Long, byte[]> existing,
+                             LongSupplier clock,
+                             boolean startTicker) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.messageProducerService = messageProducerService;
+        this.topic = topic;
+        this.maxDelayMs = maxDelayMs;
+        this.maxPending = maxPending;
+        this.releaseBatchSize = releaseBatchSize;
+        this.retryDelayMs = retryDelayMs;
+        this.clock = clock;
+        this.wheel = new TimingWheel(tickMs, WHEEL_BITS, WHEEL_LEVELS, clock.getAsLong());
+
+        long maxId = -1;
+        for (Map.Entry<Long, byte[]> record : existing.entrySet()) {
+            ByteBuffer value = ByteBuffer.wrap(record.getValue());
+            long deliverAtMs = value.getLong();
+            byte[] payload = new byte[value.remaining()];
+            value.get(payload);
+            enqueue(new TimingWheel.Entry(record.getKey(), deliverAtMs, payload));
+            maxId = Math.max(maxId, record.getKey());
+        }
+        pending.set(existing.size());
+        this.nextId = new AtomicLong(maxId + 1);
+        logger.info("Loaded {} scheduled messages from topic [{}]", existing.size(), topic);
+
+        if (startTicker) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "delivery-wheel");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Persists the message and schedules it for {@code deliverAtMs}.
+     *
+     * @return completes once the message is durable in the schedule topic
+     * @throws IllegalArgumentException if {@code deliverAtMs} is further out than the maximum delay
+     * @throws IllegalStateException if the schedule already holds the maximum number of messages
+     */
+    public CompletableFuture<Void> schedule(com.badrri.playground.avro.v2.TextMessage message, long deliverAtMs) {
+        if (deliverAtMs - clock.getAsLong() > maxDelayMs) {
+            throw new IllegalArgumentException("deliverAt is more than " + maxDelayMs + " ms away");
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Delivery schedule is full");
+        }
+        byte[] payload;
+        try {
+            ByteBuffer encoded = message.toByteBuffer();
+            payload = new byte[encoded.remaining()];
+            encoded.get(payload);
+        } catch (IOException ex) {
+            pending.decrementAndGet();
+            throw new UncheckedIOException(ex);
+        }
+        TimingWheel.Entry entry = new TimingWheel.Entry(nextId.getAndIncrement(), deliverAtMs, payload);
+        byte[] value = ByteBuffer.allocate(Long.BYTES + payload.length).putLong(deliverAtMs).put(payload).array();
+
+        return kafkaTemplate.send(topic, Long.toString(entry.id), value).handle((result, ex) -> {
+            if (ex != null) {
+                pending.decrementAndGet();
+                logger.error("Could not persist scheduled message {}: {}", entry.id, ex.getMessage());
+                throw new IllegalStateException("Could not persist scheduled message", ex);
+            }
+            enqueue(entry);
+            return null;
+        });
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    void tick() {
+        try {
+            release(clock.getAsLong());
+        } catch (RuntimeException ex) {
+            logger.error("Releasing scheduled messages failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Releases up to one batch of the messages due at {@code nowMs}.
+     *
+     * @return the number of messages handed to the producer
+     */
+    int release(long nowMs) {
+        TimingWheel.Entry batch;
+        synchronized (wheel) {
+            appendDue(wheel.advance(nowMs));
+            batch = due;
+            TimingWheel.Entry last = null;
+            TimingWheel.Entry cursor = due;
+            for (int i = 0; i < releaseBatchSize && cursor != null; i++) {
+                last = cursor;
+                cursor = cursor.next;
+            }
+            if (last != null) {
+                last.next = null;
+            }
+            due = cursor;
+            if (due == null) {
+                dueTail = null;
+            }
+        }
+
+        int released = 0;
+        for (TimingWheel.Entry entry = batch; entry != null; ) {
+            TimingWheel.Entry next = entry.next;
+            entry.next = null;
+            publish(entry);
+            released++;
+            entry = next;
+        }
+        if (released > 0) {
+            logger.debug("Released {} scheduled messages", released);
+        }
+        return released;
+    }
+
+    private void publish(TimingWheel.Entry entry) {
+        com.badrri.playground.avro.v2.TextMessage message;
+        try {
+            message = com.badrri.playground.avro.v2.TextMessage.fromByteBuffer(ByteBuffer.wrap(entry.payload));
+        } catch (IOException | AvroRuntimeException ex) {
+            logger.error("Dropping scheduled message {}, it cannot be decoded: {}", entry.id, ex.getMessage());
+            delete(entry);
+            return;
+        }
+        message.setProducedAt(Instant.ofEpochMilli(clock.getAsLong()));
+
+        CompletableFuture<Void> sent;
+        try {
+            sent = messageProducerService.sendMessageV2(message);
+        } catch (IllegalArgumentException | AvroRuntimeException ex) {
+            // Cannot succeed on a retry either: an ID the configured wire format cannot carry, or a field the
+            // v1 schema requires
+            logger.error("Dropping scheduled message {}: {}", entry.id, ex.getMessage());
+            delete(entry);
+            return;
+        } catch (RuntimeException ex) {
+            // Registry errors, max.block.ms timeouts and buffer exhaustion are thrown by the send call and may clear up
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        sent.whenComplete((result, ex) -> {
+            if (ex == null) {
+                delete(entry);
+                return;
+            }
+            logger.warn("Scheduled message {} failed to publish, retrying in {} ms: {}",
+                    entry.id, retryDelayMs, ex.getMessage());
+            enqueue(new TimingWheel.Entry(entry.id, clock.getAsLong() + retryDelayMs, entry.payload));
+        });
+    }
+
+    private void delete(TimingWheel.Entry entry) {
+        pending.decrementAndGet();
+        kafkaTemplate.send(topic, Long.toString(entry.id), null).whenComplete((result, ex) -> {
+            if (ex != null) {
+                // Worst case the message is published again after a restart
+                logger.warn("Could not delete scheduled message {}: {}", entry.id, ex.getMessage());
+            }
+        });
+    }
+
+    private void enqueue(TimingWheel.Entry entry) {
+        synchronized (wheel) {
+            if (!wheel.add(entry)) {
+                entry.next = null;
+                appendDue(entry);
+            }
+        }
+    }
+
+    private void appendDue(TimingWheel.Entry chain) {
+        if (chain == null) {
+            return;
+        }
+        if (dueTail == null) {
+            due = chain;
+        } else {
+            dueTail.next = chain;
+        }
+        TimingWheel.Entry last = chain;
+        while (last.next != null) {
+            last = last.next;
+        }
+        dueTail = last;
+    }
+
+    /**
+     * Reads the whole compacted schedule topic, keyed by schedule ID.
+     */
+    public static Map<Long, byte[]> readTopic(Map<String, Object> consumerConfig, String topic, Duration timeout) {
+        Map<Long, byte[]> scheduled = new HashMap<>();
+        try (KafkaConsumer<String, byte[]> consumer =
+                     new KafkaConsumer<>(consumerConfig, new StringDeserializer(), new ByteArrayDeserializer())) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic, timeout);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return scheduled;
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, timeout);
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (partitions.stream().anyMatch(partition -> consumer.position(partition) < endOffsets.get(partition))) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out reading schedule topic " + topic);
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(200))) {
+                    long id = Long.parseLong(record.key());
+                    if (record.value() == null) {
+                        scheduled.remove(id);
+                    } else {
+                        scheduled.put(id, record.value());
+                    }
+                }
+            }
+        }
+        return scheduled;
+    }
+}
@@ -0,0 +1,127 @@
+package com.badrri.playground.delivery;
+
+/**
+ * Hierarchical timing wheel over absolute tick numbers.
+ * <p>
+ * Level {@code L} has {@code 2^bits} slots of {@code 2^(bits*L)} ticks each.
+ * An entry goes into the lowest level whose current block also contains its
+ * due tick, so adding is a shift and a mask per level. Whenever the clock
+ * crosses a block boundary of a higher level, that level's slot is cascaded
+ * into the levels below. Entries further out than the top level spans are
+ * parked in the top level and re-placed each time their slot comes round.
+ * Buckets are intrusive singly linked lists, so an entry costs one object
+ * and no bucket ever grows an array. Not thread-safe.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final Entry[][] buckets;
+
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMs, int bits, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.buckets = new Entry[levels][1 << bits];
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * @return false if the entry is already due; it was not added and should be released now
+     */
+    boolean add(Entry entry) {
+        // Rounded up, so entries are released up to a tick late but never early
+        long tick = Math.ceilDiv(entry.deliverAtMs, tickMs);
+        if (tick <= currentTick) {
+            return false;
+        }
+        int top = buckets.length - 1;
+        int level = 0;
+        while (level < top && (tick >>> (bits * (level + 1))) != (currentTick >>> (bits * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) (tick >>> (bits * level)) & mask;
+        entry.next = buckets[level][slot];
+        buckets[level][slot] = entry;
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock up to {@code nowMs}.
+     *
+     * @return the entries that fell due, chained through {@link Entry#next}, or null
+     */
+    Entry advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        Entry due = null;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int level = 1;
+            while (level < buckets.length && (currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                level++;
+            }
+            // Highest level first, so its entries can land in the slots cascaded after it
+            for (int cascade = level - 1; cascade >= 1; cascade--) {
+                due = cascade(cascade, due);
+            }
+            int slot = (int) currentTick & mask;
+            Entry expired = buckets[0][slot];
+            buckets[0][slot] = null;
+            due = prepend(expired, due);
+        }
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Entry cascade(int level, Entry due) {
+        int slot = (int) (currentTick >>> (bits * level)) & mask;
+        Entry entry = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            size--;
+            if (!add(entry)) {
+                entry.next = due;
+                due = entry;
+            }
+            entry = next;
+        }
+        return due;
+    }
+
+    private Entry prepend(Entry chain, Entry due) {
+        while (chain != null) {
+            Entry next = chain.next;
+            size--;
+            chain.next = due;
+            due = chain;
+            chain = next;
+        }
+        return due;
+    }
+
+    /**
+     * A scheduled message: its ID in the schedule topic, due time and encoded payload.
+     */
+    static final class Entry {
+
+        final long id;
+        final long deliverAtMs;
+        final byte[] payload;
+        Entry next;
+
+        Entry(long id, long deliverAtMs, byte[] payload) {
+            this.id = id;
+            this.deliverAtMs = deliverAtMs;
+            this.payload = payload;
+        }
+    }
+}
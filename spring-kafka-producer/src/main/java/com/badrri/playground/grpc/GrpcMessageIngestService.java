@@ -0,0 +1,182 @@
+package com.badrri.playground.grpc;
+
+import com.badrri.playground.grpc.proto.MessageIngestGrpc;
+import com.badrri.playground.grpc.proto.PublishAck;
+import com.badrri.playground.grpc.proto.PublishFailure;
+import com.badrri.playground.grpc.proto.PublishRequest;
+import com.badrri.playground.grpc.proto.TextMessage;
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.service.SenderRateLimiter;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-streaming ingest that feeds {@link MessageProducerService}.
+ * <p>
+ * Inbound flow control is manual: the stream starts with a window of
+ * {@code playground.grpc.max-in-flight} messages and asks for one more each
+ * time Kafka settles a send, so a slow broker stalls the client rather than
+ * filling the producer buffer.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.grpc.enabled", havingValue = "true")
+public class GrpcMessageIngestService extends MessageIngestGrpc.MessageIngestImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcMessageIngestService.class);
+    private static final int MAX_REPORTED_FAILURES = 1000;
+
+    private final MessageProducerService messageProducerService;
+    private final SenderRateLimiter senderRateLimiter;
+    private final int maxInFlight;
+    private final SpecificDatumReader<com.badrri.playground.avro.TextMessage> avroReader =
+            new SpecificDatumReader<>(com.badrri.playground.avro.TextMessage.class);
+
+    public GrpcMessageIngestService(MessageProducerService messageProducerService,
+                                    @Nullable SenderRateLimiter senderRateLimiter,
+                                    @Value("${playground.grpc.max-in-flight:1024}") int maxInFlight) {
+        this.messageProducerService = messageProducerService;
+        this.senderRateLimiter = senderRateLimiter;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public StreamObserver<PublishRequest> publish(StreamObserver<PublishAck> responseObserver) {
+        ServerCallStreamObserver<PublishAck> call = (ServerCallStreamObserver<PublishAck>) responseObserver;
+        call.disableAutoRequest();
+        PublishStream stream = new PublishStream(call);
+        call.request(maxInFlight);
+        return stream;
+    }
+
+    com.badrri.playground.avro.TextMessage toAvro(PublishRequest request) throws IOException {
+        return switch (request.getPayloadCase()) {
+            case AVRO -> avroReader.read(null,
+                    DecoderFactory.get().binaryDecoder(request.getAvro().toByteArray(), null));
+            case MESSAGE -> TextMessageMapper.toAvro(toModel(request.getMessage()));
+            // An unset oneof would otherwise map the default instance to an empty record
+            case PAYLOAD_NOT_SET -> throw new IllegalArgumentException("neither message nor avro is set");
+        };
+    }
+
+    com.badrri.playground.avro.v2.TextMessage toAvroV2(TextMessage message) {
+        return TextMessageMapper.toAvroV2(toModel(message));
+    }
+
+    // Same mapping as the REST endpoint, so both transports produce identical records
+    private static com.badrri.playground.model.TextMessage toModel(TextMessage message) {
+        return new com.badrri.playground.model.TextMessage(message.getTitle(), message.getBody(),
+                message.getSender(), message.getReceiver(), message.getMessageId(), message.getIsImportant());
+    }
+
+    private final class PublishStream implements StreamObserver<PublishRequest> {
+
+        private final ServerCallStreamObserver<PublishAck> call;
+        // One for the open stream plus one per unsettled message; the ack goes out when it reaches zero
+        private final AtomicLong outstanding = new AtomicLong(1);
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<PublishFailure> failures = new ArrayList<>();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private long sequence;
+
+        private PublishStream(ServerCallStreamObserver<PublishAck> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void onNext(PublishRequest request) {
+            long seq = sequence++;
+            outstanding.incrementAndGet();
+
+            com.badrri.playground.avro.TextMessage message = null;
+            com.badrri.playground.avro.v2.TextMessage wideMessage = null;
+            try {
+                if (request.hasMessage() && !TextMessageMapper.fitsV1(request.getMessage().getMessageId())) {
+                    wideMessage = toAvroV2(request.getMessage());
+                } else {
+                    message = toAvro(request);
+                }
+            } catch (IOException | RuntimeException ex) {
+                settle(seq, 0, "Invalid payload: " + ex.getMessage());
+                return;
+            }
+            String sender = message != null ? message.getSender() : wideMessage.getSender();
+            long messageId = message != null ? message.getMessageId() : wideMessage.getMessageId();
+
+            if (senderRateLimiter != null && senderRateLimiter.tryAcquire(sender) > 0) {
+                settle(seq, messageId, "Rate limit exceeded for sender");
+                return;
+            }
+
+            try {
+                CompletableFuture<Void> sent = message != null
+                        ? messageProducerService.sendMessage(message)
+                        : messageProducerService.sendMessageV2(wideMessage);
+                sent.whenComplete((result, ex) -> settle(seq, messageId, ex == null ? null : ex.getMessage()));
+            } catch (RuntimeException ex) {
+                settle(seq, messageId, ex.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.warn("gRPC publish stream aborted by client after {} messages: {}", sequence, t.getMessage());
+            finished.set(true);
+        }
+
+        @Override
+        public void onCompleted() {
+            release();
+        }
+
+        private void settle(long seq, long messageId, String error) {
+            if (error == null) {
+                accepted.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                synchronized (failures) {
+                    if (failures.size() < MAX_REPORTED_FAILURES) {
+                        failures.add(PublishFailure.newBuilder()
+                                .setSequence(seq)
+                                .setMessageId(messageId)
+                                .setError(error)
+                                .build());
+                    }
+                }
+            }
+            if (!finished.get()) {
+                call.request(1);
+            }
+            release();
+        }
+
+        private void release() {
+            if (outstanding.decrementAndGet() == 0 && finished.compareAndSet(false, true)) {
+                PublishAck.Builder ack = PublishAck.newBuilder()
+                        .setAccepted(accepted.get())
+                        .setFailed(failed.get());
+                synchronized (failures) {
+                    ack.addAllFailures(failures);
+                }
+                call.onNext(ack.build());
+                call.onCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.badrri.playground.health;
+
+import com.badrri.playground.cluster.ClusterHealth;
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.service.ProducerWarmup;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Producer health for the readiness group: DOWN until the warm-up has run, and
+ * DOWN while most records in the producer's metrics window are failing. A
+ * warm-up that gave up is reported as a detail rather than holding readiness down.
+ * <p>
+ * With {@code playground.clusters.enabled} sends never touch the default
+ * producer, so readiness follows the named clusters instead: UP while at least
+ * one of them is available by its {@link ClusterHealth}, DOWN otherwise.
+ */
+@Component("kafkaProducer")
+public class KafkaProducerHealthIndicator implements HealthIndicator {
+
+    private static final String PRODUCER_METRICS = "producer-metrics";
+
+    private final KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+    private final ObjectProvider<ProducerWarmup> warmup;
+    private final ObjectProvider<MultiClusterSender> multiClusterSender;
+
+    public KafkaProducerHealthIndicator(KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate,
+                                        ObjectProvider<ProducerWarmup> warmup,
+                                        ObjectProvider<MultiClusterSender> multiClusterSender) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.warmup = warmup;
+        this.multiClusterSender = multiClusterSender;
+    }
+
+    @Override
+    public Health health() {
+        ProducerWarmup producerWarmup = warmup.getIfAvailable();
+        if (producerWarmup != null && !producerWarmup.isComplete()) {
+            return Health.outOfService().withDetail("reason", "warm-up in progress").build();
+        }
+
+        MultiClusterSender sender = multiClusterSender.getIfAvailable();
+        Health.Builder builder = sender != null ? clusters(sender) : defaultProducer();
+        if (producerWarmup != null && producerWarmup.isDegraded()) {
+            builder.withDetail("warmup", "degraded");
+        }
+        return builder.build();
+    }
+
+    private Health.Builder defaultProducer() {
+        Map<MetricName, ? extends Metric> metrics = kafkaTemplate.metrics();
+        double sendRate = metric(metrics, "record-send-rate");
+        double errorRate = metric(metrics, "record-error-rate");
+        return (errorRate > 0 && errorRate >= sendRate ? Health.down() : Health.up())
+                .withDetail("recordSendRate", sendRate)
+                .withDetail("recordErrorRate", errorRate);
+    }
+
+    private static Health.Builder clusters(MultiClusterSender sender) {
+        boolean anyAvailable = false;
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (KafkaCluster cluster : sender.clusters()) {
+            ClusterHealth health = cluster.health();
+            anyAvailable |= health.isAvailable();
+            details.put(cluster.name(), Map.of(
+                    "available", health.isAvailable(),
+                    "score", health.score(),
+                    "errorRate", health.errorRate(),
+                    "latencyMs", health.latencyMs()));
+        }
+        return (anyAvailable ? Health.up() : Health.down()).withDetail("clusters", details);
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+            MetricName metricName = entry.getKey();
+            if (PRODUCER_METRICS.equals(metricName.group()) && name.equals(metricName.name())
+                    && entry.getValue().metricValue() instanceof Double value && !value.isNaN()) {
+                return value;
+            }
+        }
+        return 0.0;
+    }
+}
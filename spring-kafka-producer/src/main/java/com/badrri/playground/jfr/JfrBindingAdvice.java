@@ -0,0 +1,54 @@
+package com.badrri.playground.jfr;
+
+import com.badrri.playground.controller.MessageController;
+import com.badrri.playground.model.TextMessage;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Emits a {@link MessageBindEvent} around request body binding for the
+ * publish endpoint. Nothing is allocated beyond the event unless a recording
+ * has the event enabled.
+ */
+@ControllerAdvice(assignableTypes = MessageController.class)
+public class JfrBindingAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String ATTRIBUTE = JfrBindingAdvice.class.getName() + ".event";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == TextMessage.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        MessageBindEvent event = new MessageBindEvent();
+        if (event.isEnabled()) {
+            event.payloadBytes = inputMessage.getHeaders().getContentLength();
+            event.begin();
+            RequestContextHolder.currentRequestAttributes()
+                    .setAttribute(ATTRIBUTE, event, RequestAttributes.SCOPE_REQUEST);
+        }
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof MessageBindEvent event) {
+            attributes.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            event.commit();
+        }
+        return body;
+    }
+}
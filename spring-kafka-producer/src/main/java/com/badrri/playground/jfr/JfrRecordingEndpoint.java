@@ -0,0 +1,183 @@
+package com.badrri.playground.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Starts, stops and downloads Flight Recorder recordings at
+ * {@code /actuator/jfr}, so a live pod can be profiled without a restart or
+ * an attached agent:
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists recordings</li>
+ *   <li>{@code POST /actuator/jfr} starts one ({@code name}, {@code settings}, {@code maxAgeSeconds})</li>
+ *   <li>{@code POST /actuator/jfr/{id}} stops it, keeping the data</li>
+ *   <li>{@code GET /actuator/jfr/{id}} downloads what has been recorded so far</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} discards it</li>
+ * </ul>
+ * With {@code playground.jfr.continuous.enabled} a rolling recording is
+ * started at boot, so the last few minutes can always be dumped after the fact.
+ * <p>
+ * At most {@code playground.jfr.max-recordings} recordings started here may be
+ * open at once, not counting the continuous one; further starts get a 429.
+ * Everything this endpoint started is closed on shutdown.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+    private static final long DEFAULT_MAX_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final List<Class<? extends jdk.jfr.Event>> PLAYGROUND_EVENTS = List.of(
+            MessageBindEvent.class, MessageMappingEvent.class, KafkaSendEnqueueEvent.class, KafkaSendAckEvent.class);
+
+    private final int maxRecordings;
+    // Recordings started through the endpoint, guarded by itself
+    private final Map<Long, Recording> started = new HashMap<>();
+    private final Recording continuousRecording;
+
+    public JfrRecordingEndpoint(@Value("${playground.jfr.continuous.enabled:false}") boolean continuous,
+                                @Value("${playground.jfr.continuous.max-age-seconds:900}") long maxAgeSeconds,
+                                @Value("${playground.jfr.max-recordings:4}") int maxRecordings) {
+        this.maxRecordings = maxRecordings;
+        if (continuous && FlightRecorder.isAvailable()) {
+            continuousRecording = newRecording("continuous", "default", maxAgeSeconds);
+            continuousRecording.start();
+            logger.info("Started continuous JFR recording {} (max age {} s)",
+                    continuousRecording.getId(), maxAgeSeconds);
+        } else {
+            continuousRecording = null;
+        }
+    }
+
+    @ReadOperation
+    public List<RecordingDescription> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescription::of)
+                .toList();
+    }
+
+    /**
+     * @param settings a JFR configuration name, {@code default} (about 1% overhead) or {@code profile}
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescription> start(@Nullable String name, @Nullable String settings,
+                                                           @Nullable Long maxAgeSeconds) {
+        Recording recording = newRecording(name, settings, maxAgeSeconds);
+        synchronized (started) {
+            // Recordings closed by other means (jcmd, JMX) no longer count
+            started.values().removeIf(open -> open.getState() == RecordingState.CLOSED);
+            if (started.size() >= maxRecordings) {
+                recording.close();
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+            }
+            recording.start();
+            started.put(recording.getId(), recording);
+        }
+        return new WebEndpointResponse<>(RecordingDescription.of(recording));
+    }
+
+    private static Recording newRecording(@Nullable String name, @Nullable String settings,
+                                          @Nullable Long maxAgeSeconds) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown JFR settings '" + settings + "'", ex);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName(name != null ? name : "playground");
+        recording.setToDisk(true);
+        recording.setMaxSize(DEFAULT_MAX_SIZE_BYTES);
+        if (maxAgeSeconds != null) {
+            recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        }
+        PLAYGROUND_EVENTS.forEach(event -> recording.enable(event).withoutStackTrace());
+        return recording;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescription> stop(@Selector long id) {
+        return find(id)
+                .map(recording -> {
+                    if (recording.getState() == RecordingState.RUNNING) {
+                        recording.stop();
+                    }
+                    return new WebEndpointResponse<>(RecordingDescription.of(recording));
+                })
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) throws IOException {
+        Recording recording = find(id).orElse(null);
+        InputStream data = recording != null ? recording.getStream(null, null) : null;
+        if (data == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new InputStreamResource(data));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> close(@Selector long id) {
+        return find(id)
+                .map(recording -> {
+                    recording.close();
+                    synchronized (started) {
+                        started.remove(id);
+                    }
+                    return new WebEndpointResponse<Void>(WebEndpointResponse.STATUS_NO_CONTENT);
+                })
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        if (continuousRecording != null) {
+            continuousRecording.close();
+        }
+        synchronized (started) {
+            started.values().forEach(Recording::close);
+            started.clear();
+        }
+    }
+
+    private static Optional<Recording> find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    public record RecordingDescription(long id, String name, String state, Instant startTime, long sizeBytes) {
+
+        static RecordingDescription of(Recording recording) {
+            return new RecordingDescription(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.badrri.playground.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.kafka.support.SendResult;
+
+/**
+ * Spans from the send call to the producer callback, so it is committed on
+ * the producer I/O thread rather than the thread that sent.
+ */
+@Name("com.badrri.playground.KafkaSendAck")
+@Label("Kafka Send Ack")
+@Category({"Playground", "Kafka"})
+@Description("Latency from KafkaTemplate.send to the broker acknowledgement or failure")
+@StackTrace(false)
+public class KafkaSendAckEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static KafkaSendAckEvent start() {
+        KafkaSendAckEvent event = new KafkaSendAckEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String topic, SendResult<?, ?> result, Throwable ex) {
+        end();
+        if (shouldCommit()) {
+            this.topic = topic;
+            this.succeeded = ex == null;
+            this.partition = ex == null ? result.getRecordMetadata().partition() : -1;
+            this.offset = ex == null ? result.getRecordMetadata().offset() : -1;
+            commit();
+        }
+    }
+}
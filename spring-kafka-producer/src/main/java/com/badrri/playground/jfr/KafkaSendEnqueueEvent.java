@@ -0,0 +1,34 @@
+package com.badrri.playground.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.badrri.playground.KafkaSendEnqueue")
+@Label("Kafka Send Enqueue")
+@Category({"Playground", "Kafka"})
+@Description("Time the calling thread spent inside KafkaTemplate.send: metadata wait, serialization, "
+        + "partitioning and blocking on a full record accumulator")
+@StackTrace(false)
+public class KafkaSendEnqueueEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    public static KafkaSendEnqueueEvent start() {
+        KafkaSendEnqueueEvent event = new KafkaSendEnqueueEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String topic) {
+        end();
+        if (shouldCommit()) {
+            this.topic = topic;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.badrri.playground.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.badrri.playground.MessageBind")
+@Label("Message Bind")
+@Category({"Playground", "Ingest"})
+@Description("Reading and binding the JSON body of POST /api/messages")
+@StackTrace(false)
+public class MessageBindEvent extends Event {
+
+    @Label("Payload Size")
+    @Description("Request Content-Length, -1 if the body was chunked")
+    @DataAmount
+    public long payloadBytes;
+}
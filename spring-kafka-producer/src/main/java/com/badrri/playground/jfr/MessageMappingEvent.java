@@ -0,0 +1,33 @@
+package com.badrri.playground.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.badrri.playground.MessageMapping")
+@Label("Message Mapping")
+@Category({"Playground", "Ingest"})
+@Description("Mapping the REST DTO to its Avro record")
+@StackTrace(false)
+public class MessageMappingEvent extends Event {
+
+    @Label("Message ID")
+    public long messageId;
+
+    public static MessageMappingEvent start() {
+        MessageMappingEvent event = new MessageMappingEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(Long messageId) {
+        end();
+        if (shouldCommit()) {
+            this.messageId = messageId != null ? messageId : -1;
+            commit();
+        }
+    }
+}
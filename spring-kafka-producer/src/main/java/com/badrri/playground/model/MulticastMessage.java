@@ -0,0 +1,36 @@
+package com.badrri.playground.model;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One text message fanned out to many receivers")
+public record MulticastMessage(
+        @Schema(description = "Title of the message", example = "Maintenance")
+        String title,
+
+        @Schema(description = "Body of the message, shared by every receiver", example = "The service is down at 22:00 UTC")
+        String body,
+
+        @Schema(description = "Sender of the message", example = "ops")
+        String sender,
+
+        @ArraySchema(arraySchema = @Schema(description = "Receivers; each gets its own record keyed by receiver"),
+                schema = @Schema(example = "user 2"))
+        List<String> receivers,
+
+        @Schema(description = "Message identifier, shared by every receiver", example = "35")
+        Long messageId,
+
+        @Schema(description = "Flag indicating if message is important", example = "false")
+        Boolean isImportant
+) {
+
+    /**
+     * The shared part of the message, with no receiver set.
+     */
+    public TextMessage withoutReceiver() {
+        return new TextMessage(title, body, sender, null, messageId, isImportant);
+    }
+}
@@ -1,7 +1,11 @@
 package com.badrri.playground.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.time.Instant;
+
+@JsonDeserialize(using = TextMessageDeserializer.class)
 @Schema(description = "Text message to be sent to Kafka")
 public record TextMessage(
         @Schema(description = "Title of the message", example = "Test")
@@ -17,9 +21,17 @@ public record TextMessage(
         String receiver,
 
         @Schema(description = "Unique message identifier", example = "35")
-        Integer messageId,
+        Long messageId,
 
         @Schema(description = "Flag indicating if message is important", example = "false")
-        Boolean isImportant
+        Boolean isImportant,
+
+        @Schema(description = "Optional time to publish the message at; omitted or past means now",
+                example = "2030-01-01T09:00:00Z", nullable = true)
+        Instant deliverAt
 ) {
+
+    public TextMessage(String title, String body, String sender, String receiver, Long messageId, Boolean isImportant) {
+        this(title, body, sender, receiver, messageId, isImportant, null);
+    }
 }
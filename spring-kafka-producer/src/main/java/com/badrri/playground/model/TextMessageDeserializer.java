@@ -0,0 +1,72 @@
+package com.badrri.playground.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.NullValueProvider;
+import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Streaming binder for the fixed {@link TextMessage} payload. Reads
+ * tokens straight into locals and calls the canonical constructor, skipping
+ * the reflective record creator lookup and buffering of the default binder.
+ * Unknown fields are skipped, matching Spring Boot's Jackson defaults.
+ */
+public class TextMessageDeserializer extends StdDeserializer<TextMessage> {
+
+    private static final NullValueProvider NULL_STRING = NullsConstantProvider.nuller();
+
+    public TextMessageDeserializer() {
+        super(TextMessage.class);
+    }
+
+    @Override
+    public TextMessage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return (TextMessage) ctxt.handleUnexpectedToken(TextMessage.class, p);
+        }
+
+        String title = null;
+        String body = null;
+        String sender = null;
+        String receiver = null;
+        Long messageId = null;
+        Boolean isImportant = null;
+        Instant deliverAt = null;
+
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            boolean isNull = token == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "title" -> title = isNull ? null : _parseString(p, ctxt, NULL_STRING);
+                case "body" -> body = isNull ? null : _parseString(p, ctxt, NULL_STRING);
+                case "sender" -> sender = isNull ? null : _parseString(p, ctxt, NULL_STRING);
+                case "receiver" -> receiver = isNull ? null : _parseString(p, ctxt, NULL_STRING);
+                case "messageId" -> messageId = isNull ? null : _parseLong(p, ctxt, Long.class);
+                case "isImportant" -> isImportant = isNull ? null : _parseBoolean(p, ctxt, Boolean.class);
+                case "deliverAt" -> deliverAt = isNull ? null : parseInstant(p, ctxt);
+                default -> p.skipChildren();
+            }
+        }
+
+        return new TextMessage(title, body, sender, receiver, messageId, isImportant, deliverAt);
+    }
+
+    // ISO-8601 instant, or epoch milliseconds
+    private Instant parseInstant(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return Instant.ofEpochMilli(p.getLongValue());
+        }
+        String text = _parseString(p, ctxt, NULL_STRING);
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException ex) {
+            return (Instant) ctxt.handleWeirdStringValue(Instant.class, text, "not an ISO-8601 instant");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.badrri.playground.model;
+
+import java.time.Instant;
+
+public final class TextMessageMapper {
+
+    private TextMessageMapper() {
+    }
+
+    /**
+     * Whether the ID can be carried by the v1 schema, whose {@code messageId} is a 32-bit int.
+     */
+    public static boolean fitsV1(Long messageId) {
+        return messageId == null || (messageId >= Integer.MIN_VALUE && messageId <= Integer.MAX_VALUE);
+    }
+
+    public static com.badrri.playground.avro.TextMessage toAvro(TextMessage message) {
+        return com.badrri.playground.avro.TextMessage.newBuilder()
+                .setTitle(message.title())
+                .setBody(message.body())
+                .setSender(message.sender())
+                .setReceiver(message.receiver())
+                .setMessageId(Math.toIntExact(message.messageId()))
+                .setIsImportant(message.isImportant())
+                .build();
+    }
+
+    public static com.badrri.playground.avro.v2.TextMessage toAvroV2(TextMessage message) {
+        return com.badrri.playground.avro.v2.TextMessage.newBuilder()
+                .setTitle(message.title())
+                .setBody(message.body())
+                .setSender(message.sender())
+                .setReceiver(message.receiver())
+                .setMessageId(message.messageId())
+                .setIsImportant(message.isImportant())
+                .setProducedAt(Instant.now())
+                .build();
+    }
+
+    public static com.badrri.playground.avro.v2.TextMessage toV2(com.badrri.playground.avro.TextMessage message) {
+        return com.badrri.playground.avro.v2.TextMessage.newBuilder()
+                .setTitle(message.getTitle())
+                .setBody(message.getBody())
+                .setSender(message.getSender())
+                .setReceiver(message.getReceiver())
+                .setMessageId(message.getMessageId())
+                .setIsImportant(message.getIsImportant())
+                .setProducedAt(Instant.now())
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the ID does not fit the v1 schema
+     */
+    public static com.badrri.playground.avro.TextMessage toV1(com.badrri.playground.avro.v2.TextMessage message) {
+        if (!fitsV1(message.getMessageId())) {
+            throw new IllegalArgumentException(
+                    "messageId " + message.getMessageId() + " does not fit the v1 wire format");
+        }
+        return com.badrri.playground.avro.TextMessage.newBuilder()
+                .setTitle(message.getTitle())
+                .setBody(message.getBody())
+                .setSender(message.getSender())
+                .setReceiver(message.getReceiver())
+                .setMessageId((int) message.getMessageId())
+                .setIsImportant(message.getIsImportant())
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+package com.badrri.playground.outbox;
+
+import com.badrri.playground.service.MessageProducerService;
+import org.apache.avro.AvroRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tails the {@link OutboxStore} in commit order and publishes each entry
+ * through {@link MessageProducerService}, deleting it once Kafka has acked.
+ * <p>
+ * At most {@code maxInFlight} entries are unacknowledged at a time, and an
+ * entry is deleted only once it and every entry before it have been acked.
+ * When a publish fails, the relay stops reading, waits for the in-flight
+ * entries to settle, and after {@code retryDelayMs} sends everything again
+ * from the oldest failed entry onward, including entries after it that were
+ * acked in the meantime. A key's records can therefore appear out of order
+ * once, but their last copies are always in commit order. Delivery is at
+ * least once: an entry acked just before a crash may be published again on
+ * restart.
+ */
+public class OutboxRelay implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long NO_FAILURE = Long.MAX_VALUE;
+
+    private final OutboxStore store;
+    private final MessageProducerService messageProducerService;
+    private final int maxInFlight;
+    private final int readBatchSize;
+    private final long retryDelayNanos;
+    private final Semaphore inFlight;
+    // Entries handed to the producer and not yet settled, and entries acked but not yet deleted
+    private final ConcurrentSkipListSet<Long> unsettled = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Long> published = new ConcurrentSkipListSet<>();
+    private final AtomicLong oldestFailure = new AtomicLong(NO_FAILURE);
+    private final Thread relay;
+
+    private volatile boolean running = true;
+    private long cursor;
+
+    public OutboxRelay(OutboxStore store,
+                       MessageProducerService messageProducerService,
+                       int maxInFlight,
+                       int readBatchSize,
+                       long retryDelayMs) {
+        this(store, messageProducerService, maxInFlight, readBatchSize, retryDelayMs, true);
+    }
+
+    OutboxRelay(OutboxStore store,
+                MessageProducerService messageProducerService,
+                int maxInFlight,
+                int readBatchSize,
+                long retryDelayMs,
+                boolean startRelay) {
+        this.store = store;
+        this.messageProducerService = messageProducerService;
+        this.maxInFlight = maxInFlight;
+        this.readBatchSize = readBatchSize;
+        this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(retryDelayMs);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.relay = new Thread(this::relayLoop, "outbox-relay");
+        this.relay.setDaemon(true);
+        if (startRelay) {
+            store.onCommit(() -> LockSupport.unpark(relay));
+            this.relay.start();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(relay);
+        relay.join(TimeUnit.SECONDS.toMillis(10));
+        // Whatever is acked by now need not be sent again on restart, unless an earlier entry failed
+        inFlight.tryAcquire(maxInFlight, 10, TimeUnit.SECONDS);
+        deletePublished(Math.min(oldestFailure.get(), oldestUnsettled()));
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                if (!relayOnce()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Outbox relay iteration failed: {}", ex.getMessage(), ex);
+                pauseForRetry();
+            }
+        }
+    }
+
+    /**
+     * Deletes what has been acked, then hands the next entries to the producer.
+     *
+     * @return whether anything was dispatched
+     */
+    boolean relayOnce() {
+        if (oldestFailure.get() != NO_FAILURE) {
+            if (inFlight.availablePermits() < maxInFlight) {
+                return false;
+            }
+            long failed = oldestFailure.getAndSet(NO_FAILURE);
+            // Entries acked after the failed one are sent again behind it, so their acks no longer count
+            deletePublished(failed);
+            published.clear();
+            cursor = failed;
+            logger.warn("Outbox relay resending from entry {} in {} ms",
+                    cursor, TimeUnit.NANOSECONDS.toMillis(retryDelayNanos));
+            pauseForRetry();
+        }
+        // Unsettled is read first: a failure is recorded before its entry leaves unsettled, so neither is missed
+        long oldestUnsettled = oldestUnsettled();
+        deletePublished(Math.min(oldestUnsettled, oldestFailure.get()));
+
+        int permits = inFlight.availablePermits();
+        if (permits == 0) {
+            return false;
+        }
+        List<OutboxStore.Entry> entries = store.read(cursor, Math.min(permits, readBatchSize));
+        for (OutboxStore.Entry entry : entries) {
+            inFlight.acquireUninterruptibly();
+            unsettled.add(entry.id());
+            publish(entry);
+            cursor = entry.id() + 1;
+        }
+        return !entries.isEmpty();
+    }
+
+    private void publish(OutboxStore.Entry entry) {
+        CompletableFuture<Void> sent;
+        try {
+            // The v2 path serves every wire format and keeps the stored producedAt
+            sent = messageProducerService.sendMessageV2(entry.message());
+        } catch (IOException | IllegalArgumentException | AvroRuntimeException ex) {
+            // Cannot succeed on a retry either: a corrupt entry, an ID the configured wire format cannot carry,
+            // or a field the v1 schema requires
+            logger.error("Dropping outbox entry {}: {}", entry.id(), ex.getMessage());
+            published.add(entry.id());
+            unsettled.remove(entry.id());
+            inFlight.release();
+            return;
+        } catch (RuntimeException ex) {
+            // Serializer and buffer errors are thrown by the send call itself and may clear up, and an entry
+            // from a newer build waits for that build to come back
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        sent.whenComplete((result, ex) -> {
+            if (ex == null) {
+                published.add(entry.id());
+            } else {
+                logger.warn("Outbox entry {} failed to publish: {}", entry.id(), ex.getMessage());
+                oldestFailure.accumulateAndGet(entry.id(), Math::min);
+            }
+            unsettled.remove(entry.id());
+            inFlight.release();
+            LockSupport.unpark(relay);
+        });
+    }
+
+    // Commits and acks unpark the relay thread, so a single park would cut the delay short
+    private void pauseForRetry() {
+        long deadline = System.nanoTime() + retryDelayNanos;
+        for (long remaining = retryDelayNanos; remaining > 0 && running; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private long oldestUnsettled() {
+        Long oldest = unsettled.ceiling(Long.MIN_VALUE);
+        return oldest == null ? Long.MAX_VALUE : oldest;
+    }
+
+    // Deletes the acked entries below the given id; the rest wait until everything before them is acked
+    private void deletePublished(long below) {
+        List<Long> ids = new ArrayList<>();
+        for (Long id = published.pollFirst(); id != null; id = published.pollFirst()) {
+            if (id >= below) {
+                published.add(id);
+                break;
+            }
+            ids.add(id);
+        }
+        store.delete(ids);
+    }
+}
@@ -0,0 +1,280 @@
+package com.badrri.playground.outbox;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local, fsync-durable queue of accepted messages, kept in RocksDB.
+ * <p>
+ * Callers hand messages to a single committer thread, which writes everything
+ * that queued up while the previous write was syncing as one batch with one
+ * fsync. Under load each fsync therefore covers many requests, and an idle
+ * store commits a lone message straight away. Entries are keyed by a sequence
+ * number assigned at commit, so iterating the store yields them in commit
+ * order. The directory must not be shared between producer instances.
+ */
+public class OutboxStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxStore.class);
+
+    // Entries are one version byte naming the writer schema, then the plain Avro binary body. When
+    // TextMessageV2.avsc changes, bump the version and keep the previous schema here under its old
+    // version, so entries written before an upgrade are resolved against the new schema on read.
+    private static final byte PAYLOAD_VERSION = 1;
+    private static final Map<Byte, DatumReader<com.badrri.playground.avro.v2.TextMessage>> PAYLOAD_READERS =
+            Map.of(PAYLOAD_VERSION, payloadReader(com.badrri.playground.avro.v2.TextMessage.getClassSchema()));
+    private static final DatumWriter<com.badrri.playground.avro.v2.TextMessage> PAYLOAD_WRITER =
+            new SpecificDatumWriter<>(com.badrri.playground.avro.v2.TextMessage.class);
+
+    static {
+        RocksDB.loadLibrary();
+    }
+
+    private final Options options;
+    private final RocksDB db;
+    private final WriteOptions syncWrite = new WriteOptions().setSync(true);
+    private final WriteOptions asyncWrite = new WriteOptions();
+    private final BlockingQueue<PendingCommit> queue;
+    private final int maxBatchSize;
+    private final long commitTimeoutNanos;
+    private final Thread committer;
+
+    private volatile boolean running = true;
+    private volatile Runnable commitListener = () -> { };
+    private long nextId;
+
+    public OutboxStore(Path directory, int maxBatchSize, int maxPending, Duration commitTimeout) {
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.commitTimeoutNanos = commitTimeout.toNanos();
+        this.options = new Options().setCreateIfMissing(true);
+        try {
+            Files.createDirectories(directory);
+            this.db = RocksDB.open(options, directory.toString());
+        } catch (IOException ex) {
+            options.close();
+            throw new UncheckedIOException(ex);
+        } catch (RocksDBException ex) {
+            options.close();
+            throw new IllegalStateException("Could not open outbox store at " + directory, ex);
+        }
+        try (RocksIterator iterator = db.newIterator()) {
+            iterator.seekToLast();
+            this.nextId = iterator.isValid() ? id(iterator.key()) + 1 : 0;
+        }
+        if (nextId > 0) {
+            logger.info("Outbox store at {} has unpublished messages up to id {}", directory, nextId - 1);
+        }
+        this.committer = new Thread(this::commitLoop, "outbox-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Stores the message and blocks until it has been synced to disk. A message
+     * still queued at the commit timeout is withdrawn, so a caller that sees the
+     * timeout knows it will not be published. If the committer has already
+     * started writing it, the call waits for that write instead.
+     *
+     * @throws IllegalStateException if the commit queue is full, the write fails, or the
+     *                               message is withdrawn at the commit timeout
+     */
+    public void commit(com.badrri.playground.avro.v2.TextMessage message) {
+        byte[] payload;
+        try {
+            payload = encode(message);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        PendingCommit pending = new PendingCommit(payload, new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !queue.offer(pending)) {
+            throw new IllegalStateException("Outbox commit queue is full");
+        }
+        try {
+            try {
+                pending.future().get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (pending.claimed().compareAndSet(false, true)) {
+                    throw new IllegalStateException("Outbox commit timed out", ex);
+                }
+                // Already part of a batch being synced; its outcome is this message's outcome
+                pending.future().get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Outbox commit failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for outbox commit", ex);
+        }
+    }
+
+    /**
+     * Up to {@code max} stored entries with an id of at least {@code fromId}, in commit order.
+     */
+    public List<Entry> read(long fromId, int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        try (RocksIterator iterator = db.newIterator()) {
+            for (iterator.seek(key(fromId)); iterator.isValid() && entries.size() < max; iterator.next()) {
+                entries.add(new Entry(id(iterator.key()), iterator.value()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes published entries. Not synced: after a crash an entry may be read, and published, again.
+     */
+    public void delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (WriteBatch batch = new WriteBatch()) {
+            for (long id : ids) {
+                batch.delete(key(id));
+            }
+            db.write(asyncWrite, batch);
+        } catch (RocksDBException ex) {
+            logger.warn("Could not delete {} published outbox entries: {}", ids.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Called on the committer thread after each synced batch.
+     */
+    public void onCommit(Runnable listener) {
+        this.commitListener = listener;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        syncWrite.close();
+        asyncWrite.close();
+        db.close();
+        options.close();
+    }
+
+    private void commitLoop() {
+        List<PendingCommit> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCommit first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                // close() interrupts to stop waiting; anything still queued is committed before exiting
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingCommit> batch) {
+        // Callers that timed out while queued have withdrawn their messages
+        batch.removeIf(pending -> !pending.claimed().compareAndSet(false, true));
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            long firstId = nextId;
+            for (PendingCommit pending : batch) {
+                writeBatch.put(key(nextId++), pending.payload());
+            }
+            db.write(syncWrite, writeBatch);
+            logger.debug("Committed outbox entries {} to {}", firstId, nextId - 1);
+        } catch (RocksDBException ex) {
+            logger.error("Outbox commit of {} entries failed: {}", batch.size(), ex.getMessage());
+            batch.forEach(pending -> pending.future().completeExceptionally(ex));
+            return;
+        }
+        batch.forEach(pending -> pending.future().complete(null));
+        commitListener.run();
+    }
+
+    // Big-endian, so RocksDB's bytewise ordering is numeric order for non-negative ids
+    private static byte[] key(long id) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(id).array();
+    }
+
+    private static long id(byte[] key) {
+        return ByteBuffer.wrap(key).getLong();
+    }
+
+    private static DatumReader<com.badrri.playground.avro.v2.TextMessage> payloadReader(Schema writerSchema) {
+        return new SpecificDatumReader<>(writerSchema, com.badrri.playground.avro.v2.TextMessage.getClassSchema());
+    }
+
+    static byte[] encode(com.badrri.playground.avro.v2.TextMessage message) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(PAYLOAD_VERSION);
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        PAYLOAD_WRITER.write(message, encoder);
+        return out.toByteArray();
+    }
+
+    public record Entry(long id, byte[] payload) {
+
+        /**
+         * @throws IOException if the entry is corrupt
+         * @throws IllegalStateException if the entry was written by a build with a newer payload version
+         */
+        public com.badrri.playground.avro.v2.TextMessage message() throws IOException {
+            if (payload.length == 0) {
+                throw new IOException("Outbox entry " + id + " is empty");
+            }
+            DatumReader<com.badrri.playground.avro.v2.TextMessage> reader = PAYLOAD_READERS.get(payload[0]);
+            if (reader == null) {
+                throw new IllegalStateException(
+                        "Outbox entry " + id + " has payload version " + payload[0] + ", unknown to this build");
+            }
+            try {
+                return reader.read(null, DecoderFactory.get().binaryDecoder(payload, 1, payload.length - 1, null));
+            } catch (RuntimeException ex) {
+                throw new IOException("Outbox entry " + id + " is corrupt", ex);
+            }
+        }
+    }
+
+    // claimed is set by whichever comes first: the committer taking it into a batch, or the caller withdrawing it
+    private record PendingCommit(byte[] payload, CompletableFuture<Void> future, AtomicBoolean claimed) {
+    }
+}
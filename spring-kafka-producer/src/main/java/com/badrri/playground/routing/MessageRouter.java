@@ -0,0 +1,101 @@
+package com.badrri.playground.routing;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Picks the target topics for each message from the compiled routing table.
+ * <p>
+ * Rules come from the JSON file at {@code playground.routing.rules-file}. The
+ * file is polled for changes and recompiled off the request path; the new
+ * table is swapped in atomically, and a file that fails to parse or compile
+ * leaves the previous table in place. Unknown keys are rejected, since a
+ * misspelled condition would otherwise be dropped and leave a rule that
+ * matches everything. Without a rules file every message goes to
+ * {@code playground.routing.default-topic}.
+ */
+@Component
+public class MessageRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageRouter.class);
+
+    private final ObjectReader rulesReader;
+    private final Path rulesFile;
+    private final String defaultTopic;
+
+    private volatile RoutingTable routingTable;
+    private FileTime loadedModifiedTime;
+
+    public MessageRouter(ObjectMapper objectMapper,
+                         @Value("${playground.routing.rules-file:}") String rulesFile,
+                         @Value("${playground.routing.default-topic:text_message}") String defaultTopic) {
+        this.rulesReader = objectMapper == null ? null : objectMapper.readerFor(RoutingRules.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.rulesFile = rulesFile.isBlank() ? null : Path.of(rulesFile);
+        this.defaultTopic = defaultTopic;
+        this.routingTable = RoutingTable.defaultTo(defaultTopic);
+        if (this.rulesFile != null && !reload()) {
+            throw new IllegalStateException("Could not load routing rules from " + rulesFile);
+        }
+    }
+
+    public static MessageRouter singleTopic(String topic) {
+        return new MessageRouter(null, "", topic);
+    }
+
+    public List<String> route(com.badrri.playground.avro.TextMessage message) {
+        return routingTable.route(message);
+    }
+
+    public List<String> route(com.badrri.playground.avro.v2.TextMessage message) {
+        return routingTable.route(message);
+    }
+
+    public Set<String> allTopics() {
+        return routingTable.allTopics();
+    }
+
+    @Scheduled(fixedDelayString = "${playground.routing.reload-interval-ms:5000}")
+    public synchronized void reloadIfChanged() {
+        if (rulesFile == null) {
+            return;
+        }
+        try {
+            if (!Files.getLastModifiedTime(rulesFile).equals(loadedModifiedTime)) {
+                reload();
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not check routing rules file {}: {}", rulesFile, ex.getMessage());
+        }
+    }
+
+    synchronized boolean reload() {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(rulesFile);
+            RoutingRules rules = rulesReader.readValue(rulesFile.toFile());
+            if (rules.defaultTopics() == null) {
+                rules = new RoutingRules(List.of(defaultTopic), rules.rules());
+            }
+            routingTable = RoutingTable.compile(rules);
+            loadedModifiedTime = modifiedTime;
+            logger.info("Loaded {} routing rules from {}", rules.rules() == null ? 0 : rules.rules().size(), rulesFile);
+            return true;
+        } catch (IOException | IllegalArgumentException ex) {
+            logger.error("Keeping previous routing rules, {} is invalid: {}", rulesFile, ex.getMessage());
+            return false;
+        }
+    }
+}
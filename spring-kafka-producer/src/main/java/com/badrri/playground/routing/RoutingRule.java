@@ -0,0 +1,19 @@
+package com.badrri.playground.routing;
+
+import java.util.List;
+
+/**
+ * One routing rule. Every condition that is set must match; unset conditions
+ * match anything. A message goes to the union of the topics of all matching
+ * rules.
+ */
+public record RoutingRule(
+        String name,
+        List<String> senders,
+        String receiverPrefix,
+        Boolean important,
+        Integer minBodyLength,
+        Integer maxBodyLength,
+        List<String> topics
+) {
+}
@@ -0,0 +1,13 @@
+package com.badrri.playground.routing;
+
+import java.util.List;
+
+/**
+ * Contents of the routing rules file. Messages that match no rule go to
+ * {@code defaultTopics}.
+ */
+public record RoutingRules(
+        List<String> defaultTopics,
+        List<RoutingRule> rules
+) {
+}
@@ -0,0 +1,224 @@
+package com.badrri.playground.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routing rules compiled into per-field lookup structures.
+ * <p>
+ * Each rule is a bit in a {@code long}. At compile time every condition is
+ * turned into a lookup that yields the set of rules it allows: a hash map for
+ * senders, a character trie for receiver prefixes, two masks for the
+ * importance flag and an interval table for body length. Routing a message is
+ * four lookups and an AND; the topic list for each distinct match set is
+ * built once and cached.
+ */
+public final class RoutingTable {
+
+    static final int MAX_RULES = Long.SIZE;
+
+    private final List<String> defaultTopics;
+    private final List<List<String>> ruleTopics;
+    private final Map<String, Long> senderMasks;
+    private final long anySenderMask;
+    private final PrefixTrie receiverTrie;
+    private final long importantMask;
+    private final long notImportantMask;
+    private final int[] lengthBounds;
+    private final long[] lengthMasks;
+    private final Set<String> allTopics;
+    private final Map<Long, List<String>> topicsByMask = new ConcurrentHashMap<>();
+
+    private RoutingTable(RoutingRules rules) {
+        List<RoutingRule> ruleList = rules.rules() == null ? List.of() : rules.rules();
+        if (ruleList.size() > MAX_RULES) {
+            throw new IllegalArgumentException("At most " + MAX_RULES + " routing rules are supported, got " + ruleList.size());
+        }
+        if (rules.defaultTopics() == null || rules.defaultTopics().isEmpty()) {
+            throw new IllegalArgumentException("Routing rules must declare at least one default topic");
+        }
+        this.defaultTopics = List.copyOf(rules.defaultTopics());
+
+        Map<String, Long> senders = new HashMap<>();
+        long anySender = 0;
+        PrefixTrie trie = new PrefixTrie();
+        long important = 0;
+        long notImportant = 0;
+        List<List<String>> topics = new ArrayList<>();
+        Set<String> everyTopic = new LinkedHashSet<>(defaultTopics);
+
+        for (int i = 0; i < ruleList.size(); i++) {
+            RoutingRule rule = ruleList.get(i);
+            long bit = 1L << i;
+            if (rule.topics() == null || rule.topics().isEmpty()) {
+                throw new IllegalArgumentException("Routing rule " + describe(rule, i) + " has no topics");
+            }
+            topics.add(List.copyOf(rule.topics()));
+            everyTopic.addAll(rule.topics());
+
+            if (rule.senders() == null || rule.senders().isEmpty()) {
+                anySender |= bit;
+            } else {
+                rule.senders().forEach(sender -> senders.merge(sender, bit, (a, b) -> a | b));
+            }
+
+            trie.add(rule.receiverPrefix() == null ? "" : rule.receiverPrefix(), bit);
+
+            if (rule.important() == null || rule.important()) {
+                important |= bit;
+            }
+            if (rule.important() == null || !rule.important()) {
+                notImportant |= bit;
+            }
+        }
+
+        this.ruleTopics = List.copyOf(topics);
+        this.senderMasks = Map.copyOf(senders);
+        this.anySenderMask = anySender;
+        this.receiverTrie = trie;
+        this.importantMask = important;
+        this.notImportantMask = notImportant;
+        this.allTopics = Set.copyOf(everyTopic);
+
+        // Body length: split the axis at every rule bound; each interval holds the rules covering it
+        TreeSet<Integer> bounds = new TreeSet<>();
+        bounds.add(0);
+        for (RoutingRule rule : ruleList) {
+            if (rule.minBodyLength() != null) {
+                bounds.add(rule.minBodyLength());
+            }
+            // No body is longer than Integer.MAX_VALUE, so that bound needs no interval above it
+            if (rule.maxBodyLength() != null && rule.maxBodyLength() < Integer.MAX_VALUE) {
+                bounds.add(rule.maxBodyLength() + 1);
+            }
+        }
+        this.lengthBounds = bounds.stream().mapToInt(Integer::intValue).toArray();
+        this.lengthMasks = new long[lengthBounds.length];
+        for (int interval = 0; interval < lengthBounds.length; interval++) {
+            int length = lengthBounds[interval];
+            for (int i = 0; i < ruleList.size(); i++) {
+                RoutingRule rule = ruleList.get(i);
+                boolean aboveMin = rule.minBodyLength() == null || length >= rule.minBodyLength();
+                boolean belowMax = rule.maxBodyLength() == null || length <= rule.maxBodyLength();
+                if (aboveMin && belowMax) {
+                    lengthMasks[interval] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    public static RoutingTable compile(RoutingRules rules) {
+        return new RoutingTable(rules);
+    }
+
+    public static RoutingTable defaultTo(String topic) {
+        return new RoutingTable(new RoutingRules(List.of(topic), List.of()));
+    }
+
+    public List<String> route(com.badrri.playground.avro.TextMessage message) {
+        return route(message.getSender(), message.getReceiver(), message.getIsImportant(), message.getBody());
+    }
+
+    public List<String> route(com.badrri.playground.avro.v2.TextMessage message) {
+        return route(message.getSender(), message.getReceiver(), message.getIsImportant(), message.getBody());
+    }
+
+    // v2 sender/receiver are nullable, and the sender map is immutable, so it rejects null lookups
+    private List<String> route(String sender, String receiver, boolean important, String body) {
+        long mask = (sender == null ? 0L : senderMasks.getOrDefault(sender, 0L)) | anySenderMask;
+        if (mask != 0) {
+            mask &= receiverTrie.match(receiver);
+        }
+        if (mask != 0) {
+            mask &= important ? importantMask : notImportantMask;
+        }
+        if (mask != 0) {
+            mask &= lengthMask(body == null ? 0 : body.length());
+        }
+        if (mask == 0) {
+            return defaultTopics;
+        }
+        return topicsByMask.computeIfAbsent(mask, this::topicsFor);
+    }
+
+    public Set<String> allTopics() {
+        return allTopics;
+    }
+
+    private long lengthMask(int length) {
+        int index = Arrays.binarySearch(lengthBounds, length);
+        return lengthMasks[index >= 0 ? index : -index - 2];
+    }
+
+    private List<String> topicsFor(long mask) {
+        Set<String> topics = new LinkedHashSet<>();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            topics.addAll(ruleTopics.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return List.copyOf(topics);
+    }
+
+    private static String describe(RoutingRule rule, int index) {
+        return rule.name() != null ? "'" + rule.name() + "'" : "#" + index;
+    }
+
+    /** Character trie whose nodes carry the rules for the prefix ending there. */
+    private static final class PrefixTrie {
+
+        private char[] labels = new char[0];
+        private PrefixTrie[] children = new PrefixTrie[0];
+        private long mask;
+
+        void add(String prefix, long bit) {
+            PrefixTrie node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.childOrCreate(prefix.charAt(i));
+            }
+            node.mask |= bit;
+        }
+
+        long match(String value) {
+            long result = mask;
+            if (value == null) {
+                return result;
+            }
+            PrefixTrie node = this;
+            for (int i = 0; i < value.length() && node.labels.length > 0; i++) {
+                int index = Arrays.binarySearch(node.labels, value.charAt(i));
+                if (index < 0) {
+                    break;
+                }
+                node = node.children[index];
+                result |= node.mask;
+            }
+            return result;
+        }
+
+        private PrefixTrie childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            PrefixTrie child = new PrefixTrie();
+            char[] newLabels = new char[labels.length + 1];
+            PrefixTrie[] newChildren = new PrefixTrie[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+}
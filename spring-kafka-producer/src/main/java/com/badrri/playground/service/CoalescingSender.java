@@ -0,0 +1,196 @@
+package com.badrri.playground.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Funnels sends from many request threads through a single batching thread.
+ * <p>
+ * Callers only enqueue onto a lock-free queue; the batching thread drains it,
+ * groups the records by target partition and hands each group to the producer
+ * in a tight loop, so the producer's accumulator is only ever touched by one
+ * thread. Each caller is completed from its own record's callback, so a slow
+ * or failed record in a group does not hold back the others. Partitions are computed the same way as Kafka's built-in partitioner for
+ * keyed records, so per-key placement is unchanged. The v1 and v2 templates
+ * share one producer, so both wire formats go through the same sender.
+ * <p>
+ * The partition count comes from {@code partitionsFor}, which runs on the
+ * batching thread. For a topic the producer has no metadata for yet, that call
+ * waits for a metadata fetch for up to {@code max.block.ms}, and every queued
+ * send, for any topic, waits behind it. Once metadata is cached the lookup
+ * does not block.
+ * <p>
+ * The caller's current observation is captured at enqueue and opened as the
+ * current scope around its send on the batching thread, so the template's
+ * send span, and the trace context written into the record headers, stay
+ * children of the request that produced the record.
+ */
+public class CoalescingSender implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingSender.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<PendingSend> queue = new ConcurrentLinkedQueue<>();
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    @SuppressWarnings("unchecked")
+    public CoalescingSender(KafkaTemplate<String, ?> kafkaTemplate, int maxBatchSize) {
+        this(kafkaTemplate, ObservationRegistry.NOOP, maxBatchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CoalescingSender(KafkaTemplate<String, ?> kafkaTemplate, ObservationRegistry observationRegistry,
+                            int maxBatchSize) {
+        this.kafkaTemplate = (KafkaTemplate<String, Object>) kafkaTemplate;
+        this.observationRegistry = observationRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.drainer = new Thread(this::drainLoop, "kafka-coalescer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Queues the record for the batching thread. The value must suit the template's serializer.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <V> CompletableFuture<SendResult<String, V>> send(String topic, String key, V value) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Coalescing sender is closed"));
+        }
+        PendingSend pending = new PendingSend(topic, key, value, observationRegistry.getCurrentObservation(),
+                new CompletableFuture<>());
+        queue.offer(pending);
+        // close() may have let the drainer exit between the check above and the offer
+        if (!running && queue.remove(pending)) {
+            pending.future().completeExceptionally(new IllegalStateException("Coalescing sender is closed"));
+        } else if (parked) {
+            LockSupport.unpark(drainer);
+        }
+        return (CompletableFuture) pending.future();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drainLoop() {
+        List<PendingSend> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            PendingSend next = queue.poll();
+            if (next == null) {
+                idle();
+                continue;
+            }
+            do {
+                batch.add(next);
+            } while (batch.size() < maxBatchSize && (next = queue.poll()) != null);
+
+            try {
+                dispatch(batch);
+            } catch (RuntimeException ex) {
+                logger.error("Coalesced batch of {} records failed: {}", batch.size(), ex.getMessage());
+                batch.forEach(pending -> pending.future().completeExceptionally(ex));
+            }
+            batch.clear();
+        }
+    }
+
+    private void idle() {
+        parked = true;
+        // Re-check after publishing the flag so a concurrent offer cannot be missed
+        if (queue.isEmpty() && running) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        parked = false;
+    }
+
+    private void dispatch(List<PendingSend> batch) {
+        Map<String, Integer> partitionCounts = new HashMap<>();
+        Map<String, Map<Integer, List<PendingSend>>> byTopicPartition = new HashMap<>();
+        for (PendingSend pending : batch) {
+            int partitions = partitionCounts.computeIfAbsent(pending.topic(), this::partitionCount);
+            byTopicPartition
+                    .computeIfAbsent(pending.topic(), topic -> new HashMap<>())
+                    .computeIfAbsent(partitionFor(pending.key(), partitions), partition -> new ArrayList<>())
+                    .add(pending);
+        }
+
+        byTopicPartition.forEach((topic, groups) -> groups.forEach((partition, group) -> {
+            Integer target = partition < 0 ? null : partition;
+            for (PendingSend pending : group) {
+                send(new ProducerRecord<>(topic, target, pending.key(), pending.value()), pending);
+            }
+        }));
+    }
+
+    private void send(ProducerRecord<String, Object> record, PendingSend pending) {
+        CompletableFuture<SendResult<String, Object>> sent;
+        Observation parent = pending.observation();
+        try (Observation.Scope ignored = parent == null ? null : parent.openScope()) {
+            sent = kafkaTemplate.send(record);
+        } catch (RuntimeException ex) {
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        sent.whenComplete((result, ex) -> {
+            if (ex != null) {
+                pending.future().completeExceptionally(ex);
+            } else {
+                pending.future().complete(result);
+            }
+        });
+    }
+
+    private int partitionCount(String topic) {
+        try {
+            List<PartitionInfo> partitions = kafkaTemplate.partitionsFor(topic);
+            return partitions == null ? 0 : partitions.size();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not fetch partitions for topic [{}], leaving placement to the producer: {}",
+                    topic, ex.getMessage());
+            return 0;
+        }
+    }
+
+    static int partitionFor(String key, int partitions) {
+        if (key == null || partitions <= 0) {
+            return -1;
+        }
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    private record PendingSend(
+            String topic,
+            String key,
+            Object value,
+            @Nullable Observation observation,
+            CompletableFuture<SendResult<String, Object>> future
+    ) {
+    }
+}
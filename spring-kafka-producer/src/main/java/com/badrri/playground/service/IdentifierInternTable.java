@@ -0,0 +1,193 @@
+package com.badrri.playground.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Producer-side dictionary for sender/receiver identifiers in the v2 wire format.
+ * <p>
+ * Each identifier gets a small int the first time it is seen. The
+ * {@code id -> identifier} mapping is published to a compacted topic, and
+ * records using the ID are held back until that publish is acknowledged, so a
+ * consumer that reads the intern topic never meets an unknown ref. IDs carry
+ * the producer instance in their top bits so instances never hand out the
+ * same ID, and the table is reloaded from the topic on startup so IDs stay
+ * stable across restarts. Once the table is full, identifiers stay inline as
+ * plain strings.
+ * <p>
+ * Held records are released on a small pool of the table's own rather than
+ * on the intern producer's I/O thread, so a main send that blocks for
+ * {@code max.block.ms} cannot stall the acks of later intern publishes.
+ */
+public class IdentifierInternTable implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentifierInternTable.class);
+    static final int SEQUENCE_BITS = 24;
+    static final int MAX_INSTANCE_ID = (1 << (Integer.SIZE - 1 - SEQUENCE_BITS)) - 1;
+    private static final int RELEASE_THREADS = 2;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final int idBase;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSequence;
+    private final ExecutorService releaseExecutor;
+
+    public IdentifierInternTable(KafkaTemplate<String, String> kafkaTemplate, String topic,
+                                 int instanceId, int maxEntries, Map<Integer, String> existing) {
+        if (instanceId < 0 || instanceId > MAX_INSTANCE_ID) {
+            throw new IllegalArgumentException("Intern instance ID must be between 0 and " + MAX_INSTANCE_ID);
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.idBase = instanceId << SEQUENCE_BITS;
+        this.maxEntries = Math.min(maxEntries, 1 << SEQUENCE_BITS);
+
+        int sequence = 0;
+        CompletableFuture<Void> published = CompletableFuture.completedFuture(null);
+        for (Map.Entry<Integer, String> mapping : existing.entrySet()) {
+            entries.putIfAbsent(mapping.getValue(), new Entry(mapping.getKey(), published));
+            if ((mapping.getKey() >>> SEQUENCE_BITS) == instanceId) {
+                sequence = Math.max(sequence, (mapping.getKey() & ((1 << SEQUENCE_BITS) - 1)) + 1);
+            }
+        }
+        this.nextSequence = new AtomicInteger(sequence);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.releaseExecutor = Executors.newFixedThreadPool(RELEASE_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "intern-release-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Loaded {} interned identifiers from topic [{}], next ID {}", entries.size(), topic, idBase + sequence);
+    }
+
+    /**
+     * Replaces sender and receiver with refs where possible.
+     *
+     * @return completes once every ref in the returned message is readable from the intern topic, on the
+     *         caller's thread if they already are and on a release thread otherwise
+     */
+    public CompletableFuture<com.badrri.playground.avro.v2.TextMessage> encode(
+            com.badrri.playground.avro.v2.TextMessage message) {
+        Entry sender = intern(message.getSender());
+        Entry receiver = intern(message.getReceiver());
+        if (sender == null && receiver == null) {
+            return CompletableFuture.completedFuture(message);
+        }
+
+        com.badrri.playground.avro.v2.TextMessage.Builder encoded =
+                com.badrri.playground.avro.v2.TextMessage.newBuilder(message);
+        if (sender != null) {
+            encoded.setSender(null).setSenderRef(sender.id());
+        }
+        if (receiver != null) {
+            encoded.setReceiver(null).setReceiverRef(receiver.id());
+        }
+        com.badrri.playground.avro.v2.TextMessage result = encoded.build();
+
+        boolean senderReady = sender == null || sender.published().isDone();
+        boolean receiverReady = receiver == null || receiver.published().isDone();
+        if (senderReady && receiverReady) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return CompletableFuture.allOf(
+                sender == null ? CompletableFuture.completedFuture(null) : sender.published(),
+                receiver == null ? CompletableFuture.completedFuture(null) : receiver.published())
+                .thenApplyAsync(ignored -> result, releaseExecutor);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        releaseExecutor.shutdown();
+    }
+
+    private Entry intern(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        Entry entry = entries.get(identifier);
+        if (entry != null || entries.size() >= maxEntries || nextSequence.get() >= 1 << SEQUENCE_BITS) {
+            return entry;
+        }
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        entry = entries.computeIfAbsent(identifier,
+                key -> new Entry(idBase | nextSequence.getAndIncrement(), published));
+        if (entry.published() == published) {
+            publish(identifier, entry.id(), published);
+        }
+        return entry;
+    }
+
+    private void publish(String identifier, int id, CompletableFuture<Void> published) {
+        kafkaTemplate.send(topic, Integer.toString(id), identifier).whenComplete((result, ex) -> {
+            if (ex == null) {
+                published.complete(null);
+                return;
+            }
+            // Forget the failed ID so the next message retries with a fresh one
+            logger.warn("Could not publish interned identifier [{}] as {}: {}", identifier, id, ex.getMessage());
+            entries.remove(identifier);
+            published.completeExceptionally(ex);
+        });
+    }
+
+    /**
+     * Reads the whole compacted intern topic, keyed by ID.
+     */
+    public static Map<Integer, String> readTopic(Map<String, Object> consumerConfig, String topic, Duration timeout) {
+        Map<Integer, String> mappings = new HashMap<>();
+        try (KafkaConsumer<String, String> consumer =
+                     new KafkaConsumer<>(consumerConfig, new StringDeserializer(), new StringDeserializer())) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic, timeout);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return mappings;
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, timeout);
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (partitions.stream().anyMatch(partition -> consumer.position(partition) < endOffsets.get(partition))) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out reading intern topic " + topic);
+                }
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    int id = Integer.parseInt(record.key());
+                    if (record.value() == null) {
+                        mappings.remove(id);
+                    } else {
+                        mappings.put(id, record.value());
+                    }
+                }
+            }
+        }
+        return mappings;
+    }
+
+    private record Entry(int id, CompletableFuture<Void> published) {
+    }
+}
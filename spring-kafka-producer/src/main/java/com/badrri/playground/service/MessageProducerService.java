@@ -1,12 +1,22 @@
 package com.badrri.playground.service;
 
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.jfr.KafkaSendAckEvent;
+import com.badrri.playground.jfr.KafkaSendEnqueueEvent;
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.routing.MessageRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class MessageProducerService {
@@ -15,27 +25,146 @@ public class MessageProducerService {
     private static final String TOPIC_NAME = "text_message";
 
     private final KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+    private final MessageRouter messageRouter;
+    private final CoalescingSender coalescingSender;
+    private final KafkaTemplate<String, com.badrri.playground.avro.v2.TextMessage> v2KafkaTemplate;
+    private final IdentifierInternTable internTable;
+    private final MultiClusterSender multiClusterSender;
+    private final WireFormat wireFormat;
+    private final String shadowTopicSuffix;
 
     public MessageProducerService(KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate) {
+        this(kafkaTemplate, MessageRouter.singleTopic(TOPIC_NAME), null, null, null, null, "v1", "");
+    }
+
+    @Autowired
+    public MessageProducerService(KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate,
+                                  MessageRouter messageRouter,
+                                  @Nullable CoalescingSender coalescingSender,
+                                  @Nullable KafkaTemplate<String, com.badrri.playground.avro.v2.TextMessage> v2KafkaTemplate,
+                                  @Nullable IdentifierInternTable internTable,
+                                  @Nullable MultiClusterSender multiClusterSender,
+                                  @Value("${playground.wire-format:v1}") String wireFormat,
+                                  @Value("${playground.wire-format.shadow-topic-suffix:.v2}") String shadowTopicSuffix) {
         this.kafkaTemplate = kafkaTemplate;
+        this.messageRouter = messageRouter;
+        this.coalescingSender = coalescingSender;
+        this.v2KafkaTemplate = v2KafkaTemplate;
+        this.internTable = internTable;
+        this.multiClusterSender = multiClusterSender;
+        this.wireFormat = WireFormat.parse(wireFormat);
+        this.shadowTopicSuffix = shadowTopicSuffix;
+        if (this.wireFormat != WireFormat.V1 && v2KafkaTemplate == null) {
+            throw new IllegalStateException("Wire format " + this.wireFormat + " needs a v2 KafkaTemplate");
+        }
+        // The coalescer batches for the default producer only; letting one silently shadow the other would hide it
+        if (coalescingSender != null && multiClusterSender != null) {
+            throw new IllegalStateException(
+                    "playground.producer.coalescing.enabled and playground.clusters.enabled cannot both be set");
+        }
     }
 
-    public void sendMessage(com.badrri.playground.avro.TextMessage message) {
+    /**
+     * Sends the message to every topic it routes to, in the configured wire format.
+     *
+     * @return completes when Kafka has acknowledged the message on all of its topics
+     */
+    public CompletableFuture<Void> sendMessage(com.badrri.playground.avro.TextMessage message) {
+        return switch (wireFormat) {
+            case V1 -> sendV1(message, messageRouter.route(message));
+            case V2 -> sendV2(TextMessageMapper.toV2(message), messageRouter.route(message), "");
+            case DUAL -> sendDual(message, TextMessageMapper.toV2(message), messageRouter.route(message));
+        };
+    }
+
+    /**
+     * Entry point for messages whose ID may not fit the v1 schema.
+     *
+     * @throws IllegalArgumentException if the wire format includes v1 and the ID does not fit it
+     */
+    public CompletableFuture<Void> sendMessageV2(com.badrri.playground.avro.v2.TextMessage message) {
+        return switch (wireFormat) {
+            case V1 -> sendV1(TextMessageMapper.toV1(message), messageRouter.route(message));
+            case V2 -> sendV2(message, messageRouter.route(message), "");
+            case DUAL -> sendDual(TextMessageMapper.toV1(message), message, messageRouter.route(message));
+        };
+    }
+
+    /**
+     * Whether {@link #sendMessageV2} can carry this ID in the configured wire format.
+     */
+    public boolean canCarry(Long messageId) {
+        return wireFormat == WireFormat.V2 || TextMessageMapper.fitsV1(messageId);
+    }
+
+    private CompletableFuture<Void> sendV1(com.badrri.playground.avro.TextMessage message, List<String> topics) {
         String key = String.valueOf(message.getMessageId());
+        if (topics.size() == 1) {
+            return send(topics.get(0), key, message, kafkaTemplate);
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[topics.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = send(topics.get(i), key, message, kafkaTemplate);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private CompletableFuture<Void> sendV2(com.badrri.playground.avro.v2.TextMessage message,
+                                           List<String> topics, String topicSuffix) {
+        String key = String.valueOf(message.getMessageId());
+        CompletableFuture<com.badrri.playground.avro.v2.TextMessage> encoded = internTable != null
+            ? internTable.encode(message)
+            : CompletableFuture.completedFuture(message);
+        // A held record is released on the intern table's own pool, not the intern producer's I/O thread
+        return encoded.thenCompose(compact -> {
+            if (topics.size() == 1) {
+                return send(topics.get(0) + topicSuffix, key, compact, v2KafkaTemplate);
+            }
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[topics.size()];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = send(topics.get(i) + topicSuffix, key, compact, v2KafkaTemplate);
+            }
+            return CompletableFuture.allOf(futures);
+        });
+    }
+
+    // Only the v1 write decides the outcome; the shadow copy is best effort while consumers migrate
+    private CompletableFuture<Void> sendDual(com.badrri.playground.avro.TextMessage v1Message,
+                                             com.badrri.playground.avro.v2.TextMessage v2Message,
+                                             List<String> topics) {
+        sendV2(v2Message, topics, shadowTopicSuffix).exceptionally(ex -> null);
+        return sendV1(v1Message, topics);
+    }
 
-        CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> future =
-            kafkaTemplate.send(TOPIC_NAME, key, message);
+    // The template only covers the single-cluster, uncoalesced path; the other two senders take either schema
+    private <V> CompletableFuture<Void> send(String topic, String key, V message, KafkaTemplate<String, V> template) {
+        KafkaSendAckEvent ackEvent = KafkaSendAckEvent.start();
+        KafkaSendEnqueueEvent enqueueEvent = KafkaSendEnqueueEvent.start();
+        CompletableFuture<? extends SendResult<String, ?>> future;
+        if (multiClusterSender != null) {
+            future = multiClusterSender.send(topic, key, message);
+        } else if (coalescingSender != null) {
+            future = coalescingSender.send(topic, key, message);
+        } else {
+            future = template.send(topic, key, message);
+        }
+        enqueueEvent.finish(topic);
 
-        future.whenComplete((result, ex) -> {
+        return future.handle((result, ex) -> {
+            ackEvent.finish(topic, result, ex);
             if (ex == null) {
-                logger.info("Sent message=[{}] with offset=[{}]",
+                logger.info("Sent message=[{}] to topic=[{}] with offset=[{}]",
                     message,
+                    topic,
                     result.getRecordMetadata().offset());
             } else {
-                logger.error("Unable to send message=[{}] due to: {}",
+                logger.error("Unable to send message=[{}] to topic=[{}] due to: {}",
                     message,
+                    topic,
                     ex.getMessage());
+                throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
             }
+            return null;
         });
     }
 }
@@ -0,0 +1,300 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.routing.MessageRouter;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryData;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes one message to many receivers without serializing it once per receiver.
+ * <p>
+ * Avro encodes a record as its fields in schema order, so the fields before
+ * {@code receiver} and the fields after it are encoded once per multicast.
+ * Each receiver's record is those shared bytes behind the schema registry
+ * header, with only the encoded receiver spliced in between, and is keyed by
+ * receiver. The split is taken from the generated classes' schemas, and the
+ * shared fields are written by Avro's own datum writer, so a schema change
+ * moves the split with it rather than corrupting the payload. Records are grouped by target partition, computed the same way as
+ * Kafka's built-in partitioner, and handed to the producer one partition at a
+ * time so each group lands in the same batch.
+ * <p>
+ * v2 records carry the literal sender and receiver; identifier interning does
+ * not apply to multicast. Records go to the default cluster through a producer
+ * of their own, so multi-cluster routing and failover do not apply either.
+ */
+public class MulticastSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastSender.class);
+    private static final byte MAGIC_BYTE = 0;
+    private static final Layout V1_LAYOUT = Layout.of(com.badrri.playground.avro.TextMessage.getClassSchema(),
+            SpecificData.getForClass(com.badrri.playground.avro.TextMessage.class));
+    private static final Layout V2_LAYOUT = Layout.of(com.badrri.playground.avro.v2.TextMessage.getClassSchema(),
+            SpecificData.getForClass(com.badrri.playground.avro.v2.TextMessage.class));
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final MessageRouter messageRouter;
+    private final WireFormat wireFormat;
+    private final String shadowTopicSuffix;
+    private final int maxReceivers;
+    private final Map<String, Integer> schemaIds = new ConcurrentHashMap<>();
+
+    public MulticastSender(KafkaTemplate<String, byte[]> kafkaTemplate,
+                           SchemaRegistryClient schemaRegistryClient,
+                           MessageRouter messageRouter,
+                           String wireFormat,
+                           String shadowTopicSuffix,
+                           int maxReceivers) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.messageRouter = messageRouter;
+        this.wireFormat = WireFormat.parse(wireFormat);
+        this.shadowTopicSuffix = shadowTopicSuffix;
+        this.maxReceivers = maxReceivers;
+    }
+
+    public int maxReceivers() {
+        return maxReceivers;
+    }
+
+    /**
+     * Sends a copy of the message to each receiver, on every topic that receiver's copy routes to.
+     *
+     * @return completes when Kafka has acknowledged every receiver's record
+     * @throws IllegalArgumentException if the receivers are empty, too many or contain null,
+     *                                  or the wire format includes v1 and the ID does not fit it
+     */
+    public CompletableFuture<Void> send(com.badrri.playground.avro.v2.TextMessage message, List<String> receivers) {
+        if (receivers == null || receivers.isEmpty() || receivers.size() > maxReceivers
+                || receivers.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Multicast needs 1 to " + maxReceivers + " non-null receivers");
+        }
+        // A copy whose receiver is overwritten while routing; v1 requires one to be set
+        com.badrri.playground.avro.v2.TextMessage copy = com.badrri.playground.avro.v2.TextMessage.newBuilder(message)
+            .setReceiver(receivers.get(0))
+            .build();
+        return switch (wireFormat) {
+            case V1 -> sendV1(TextMessageMapper.toV1(copy), receivers);
+            case V2 -> sendV2(copy, receivers, "");
+            case DUAL -> {
+                com.badrri.playground.avro.TextMessage v1Message = TextMessageMapper.toV1(copy);
+                // Only the v1 write decides the outcome; the shadow copy is best effort while consumers migrate
+                sendV2(copy, receivers, shadowTopicSuffix).exceptionally(ex -> null);
+                yield sendV1(v1Message, receivers);
+            }
+        };
+    }
+
+    private CompletableFuture<Void> sendV1(com.badrri.playground.avro.TextMessage message, List<String> receivers) {
+        Map<String, List<String>> receiversByTopic = new LinkedHashMap<>();
+        for (String receiver : receivers) {
+            message.setReceiver(receiver);
+            for (String topic : messageRouter.route(message)) {
+                receiversByTopic.computeIfAbsent(topic, ignored -> new ArrayList<>()).add(receiver);
+            }
+        }
+
+        return sendAll(receiversByTopic, "", message.getSchema(), V1_LAYOUT.beforeReceiver(message),
+            V1_LAYOUT.afterReceiver(message), message.getMessageId());
+    }
+
+    private CompletableFuture<Void> sendV2(com.badrri.playground.avro.v2.TextMessage message,
+                                           List<String> receivers, String topicSuffix) {
+        Map<String, List<String>> receiversByTopic = new LinkedHashMap<>();
+        for (String receiver : receivers) {
+            message.setReceiver(receiver);
+            for (String topic : messageRouter.route(message)) {
+                receiversByTopic.computeIfAbsent(topic, ignored -> new ArrayList<>()).add(receiver);
+            }
+        }
+
+        // receiverRef stays unset: the receiver is always written literally
+        return sendAll(receiversByTopic, topicSuffix, message.getSchema(), V2_LAYOUT.beforeReceiver(message),
+            V2_LAYOUT.afterReceiver(message), message.getMessageId());
+    }
+
+    private CompletableFuture<Void> sendAll(Map<String, List<String>> receiversByTopic, String topicSuffix,
+                                            Schema schema, byte[] beforeReceiver, byte[] afterReceiver,
+                                            long messageId) {
+        if (receiversByTopic.size() == 1) {
+            Map.Entry<String, List<String>> only = receiversByTopic.entrySet().iterator().next();
+            return send(only.getKey() + topicSuffix, schema, beforeReceiver, afterReceiver, only.getValue(), messageId);
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(receiversByTopic.size());
+        receiversByTopic.forEach((topic, topicReceivers) -> futures.add(
+            send(topic + topicSuffix, schema, beforeReceiver, afterReceiver, topicReceivers, messageId)));
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> send(String topic, Schema schema, byte[] beforeReceiver, byte[] afterReceiver,
+                                         List<String> receivers, long messageId) {
+        byte[] head = ByteBuffer.allocate(5 + beforeReceiver.length)
+            .put(MAGIC_BYTE)
+            .putInt(schemaId(topic, schema))
+            .put(beforeReceiver)
+            .array();
+
+        int partitions = partitionCount(topic);
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(receivers.size());
+        for (String receiver : receivers) {
+            int partition = CoalescingSender.partitionFor(receiver, partitions);
+            records.add(new ProducerRecord<>(topic, partition < 0 ? null : partition, receiver,
+                withReceiver(head, receiver, afterReceiver)));
+        }
+        if (partitions > 0) {
+            // Stable, so repeated receivers keep their order
+            records.sort(Comparator.comparingInt(ProducerRecord::partition));
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[records.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = kafkaTemplate.send(records.get(i));
+        }
+        return CompletableFuture.allOf(futures).whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                logger.info("Sent multicast messageId=[{}] to {} receivers on topic=[{}]",
+                    messageId,
+                    records.size(),
+                    topic);
+            } else {
+                logger.error("Unable to send multicast messageId=[{}] to every receiver on topic=[{}] due to: {}",
+                    messageId,
+                    topic,
+                    ex.getMessage());
+            }
+        });
+    }
+
+    // Same subject and ID that KafkaAvroSerializer would use with the default topic name strategy
+    private int schemaId(String topic, Schema schema) {
+        String subject = topic + "-value";
+        Integer id = schemaIds.get(subject);
+        if (id == null) {
+            try {
+                id = schemaRegistryClient.register(subject, new AvroSchema(schema));
+            } catch (IOException | RestClientException ex) {
+                throw new SerializationException("Error registering Avro schema for subject " + subject, ex);
+            }
+            schemaIds.put(subject, id);
+        }
+        return id;
+    }
+
+    private int partitionCount(String topic) {
+        try {
+            List<PartitionInfo> partitions = kafkaTemplate.partitionsFor(topic);
+            return partitions == null ? 0 : partitions.size();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not fetch partitions for topic [{}], leaving placement to the producer: {}",
+                topic, ex.getMessage());
+            return 0;
+        }
+    }
+
+    static byte[] withReceiver(byte[] head, String receiver, byte[] tail) {
+        byte[] utf8 = receiver.getBytes(StandardCharsets.UTF_8);
+        byte[] length = new byte[5];
+        int lengthBytes = BinaryData.encodeInt(utf8.length, length, 0);
+
+        byte[] record = new byte[head.length + lengthBytes + utf8.length + tail.length];
+        int position = 0;
+        System.arraycopy(head, 0, record, position, head.length);
+        position += head.length;
+        System.arraycopy(length, 0, record, position, lengthBytes);
+        position += lengthBytes;
+        System.arraycopy(utf8, 0, record, position, utf8.length);
+        position += utf8.length;
+        System.arraycopy(tail, 0, record, position, tail.length);
+        return record;
+    }
+
+    /**
+     * Where {@code receiver} sits in a schema. The receiver must be a string or
+     * a union with a string branch; since it is never null here, the branch
+     * index is part of the shared bytes before it.
+     */
+    private record Layout(List<Schema.Field> before, List<Schema.Field> after, int receiverBranch,
+                          FieldWriter writer) {
+
+        static Layout of(Schema schema, SpecificData data) {
+            Schema.Field receiver = schema.getField("receiver");
+            if (receiver == null) {
+                throw new IllegalStateException(schema.getFullName() + " has no receiver field to multicast on");
+            }
+            int branch = -1;
+            if (receiver.schema().getType() == Schema.Type.UNION) {
+                Integer index = receiver.schema().getIndexNamed(Schema.Type.STRING.getName());
+                if (index == null) {
+                    throw new IllegalStateException(schema.getFullName() + ".receiver has no string branch");
+                }
+                branch = index;
+            } else if (receiver.schema().getType() != Schema.Type.STRING) {
+                throw new IllegalStateException(schema.getFullName() + ".receiver is not a string");
+            }
+            List<Schema.Field> fields = schema.getFields();
+            return new Layout(List.copyOf(fields.subList(0, receiver.pos())),
+                    List.copyOf(fields.subList(receiver.pos() + 1, fields.size())), branch, new FieldWriter(data));
+        }
+
+        byte[] beforeReceiver(SpecificRecord record) {
+            return writer.encode(record, before, receiverBranch);
+        }
+
+        byte[] afterReceiver(SpecificRecord record) {
+            return writer.encode(record, after, -1);
+        }
+    }
+
+    // Exposes the datum writer's per-field write, which applies the same logical type conversions as a whole record
+    private static final class FieldWriter extends SpecificDatumWriter<Object> {
+
+        private FieldWriter(SpecificData data) {
+            super(data);
+        }
+
+        byte[] encode(SpecificRecord record, List<Schema.Field> fields, int trailingBranch) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            try {
+                for (Schema.Field field : fields) {
+                    write(field.schema(), record.get(field.pos()), encoder);
+                }
+                if (trailingBranch >= 0) {
+                    encoder.writeIndex(trailingBranch);
+                }
+                encoder.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.model.TextMessage;
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.routing.MessageRouter;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.PartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pays the first-request costs before the pod takes traffic: Kafka metadata
+ * and broker connection, schema ID lookup, and JIT compilation of the
+ * mapping/serialization path.
+ * <p>
+ * Application runners complete before Spring Boot flips readiness to
+ * ACCEPTING_TRAFFIC, so the readiness probe stays down until this finishes or
+ * times out. If it times out, {@code KafkaProducerHealthIndicator} keeps
+ * readiness down until the warm-up catches up. A failed attempt, e.g. the
+ * schema registry not being reachable yet, is retried with exponential
+ * backoff; after {@code max-attempts} failures, or if the retry loop is
+ * interrupted, the warm-up is marked complete but degraded, so the pod still takes traffic and pays the first-request
+ * costs on its first sends instead.
+ * <p>
+ * With {@code playground.clusters.enabled} the metadata is fetched from every
+ * named cluster rather than the default producer. A cluster that cannot be
+ * reached is marked down, so it stays out of rotation and out of readiness
+ * until the cluster prober reaches it; the attempt only fails if no cluster
+ * answers.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.warmup.enabled", havingValue = "true")
+public class ProducerWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProducerWarmup.class);
+
+    private final KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+    private final MultiClusterSender multiClusterSender;
+    private final MessageRouter messageRouter;
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final KafkaAvroSerializer avroSerializer;
+    private final int iterations;
+    private final long timeoutMs;
+    private final WireFormat wireFormat;
+    private final String shadowTopicSuffix;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+
+    private volatile boolean complete;
+    private volatile boolean degraded;
+
+    public ProducerWarmup(KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate,
+                          @Nullable MultiClusterSender multiClusterSender,
+                          MessageRouter messageRouter,
+                          SchemaRegistryClient schemaRegistryClient,
+                          KafkaAvroSerializer avroSerializer,
+                          @Value("${playground.warmup.iterations:20000}") int iterations,
+                          @Value("${playground.warmup.timeout-ms:30000}") long timeoutMs,
+                          @Value("${playground.wire-format:v1}") String wireFormat,
+                          @Value("${playground.wire-format.shadow-topic-suffix:.v2}") String shadowTopicSuffix,
+                          @Value("${playground.warmup.max-attempts:8}") int maxAttempts,
+                          @Value("${playground.warmup.retry-backoff-ms:500}") long retryBackoffMs,
+                          @Value("${playground.warmup.max-retry-backoff-ms:30000}") long maxRetryBackoffMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.multiClusterSender = multiClusterSender;
+        this.messageRouter = messageRouter;
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.avroSerializer = avroSerializer;
+        this.iterations = iterations;
+        this.timeoutMs = timeoutMs;
+        this.wireFormat = WireFormat.parse(wireFormat);
+        this.shadowTopicSuffix = shadowTopicSuffix;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Whether the warm-up gave up, after {@code max-attempts} failures or an interrupt; {@link #isComplete()} is
+     * then also true.
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        CompletableFuture<Void> warmup = CompletableFuture.runAsync(this::warmUpWithRetry, runnable -> {
+            Thread thread = new Thread(runnable, "producer-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        try {
+            warmup.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            logger.warn("Producer warm-up did not finish within {} ms, continuing in the background", timeoutMs);
+        } catch (ExecutionException ex) {
+            logger.error("Producer warm-up failed: {}", ex.getCause().getMessage());
+        }
+    }
+
+    void warmUpWithRetry() {
+        long backoffMs = retryBackoffMs;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    warmUp();
+                    return;
+                } catch (RuntimeException ex) {
+                    if (attempt >= maxAttempts) {
+                        logger.error("Producer warm-up failed {} times, taking traffic without it: {}",
+                                attempt, ex.getMessage());
+                        return;
+                    }
+                    logger.warn("Producer warm-up attempt {} of {} failed, retrying in {} ms: {}",
+                            attempt, maxAttempts, backoffMs, ex.getMessage());
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ex) {
+                    logger.warn("Producer warm-up interrupted after attempt {}, taking traffic without it", attempt);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxRetryBackoffMs);
+            }
+        } finally {
+            // Any way out short of a finished warm-up, including an interrupt or an Error, must not leave
+            // readiness down for good
+            if (!complete) {
+                degraded = true;
+                complete = true;
+            }
+        }
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        AvroSchema schema = new AvroSchema(com.badrri.playground.avro.TextMessage.getClassSchema());
+        AvroSchema v2Schema = new AvroSchema(com.badrri.playground.avro.v2.TextMessage.getClassSchema());
+        int partitions = 0;
+        StringJoiner schemaIds = new StringJoiner(", ");
+
+        for (String topic : messageRouter.allTopics()) {
+            partitions += fetchMetadata(topic);
+
+            try {
+                if (wireFormat != WireFormat.V2) {
+                    schemaIds.add(topic + "=" + schemaRegistryClient.register(topic + "-value", schema));
+                }
+                if (wireFormat != WireFormat.V1) {
+                    String v2Topic = wireFormat == WireFormat.DUAL ? topic + shadowTopicSuffix : topic;
+                    schemaIds.add(v2Topic + "=" + schemaRegistryClient.register(v2Topic + "-value", v2Schema));
+                }
+            } catch (Exception ex) {
+                throw new IllegalStateException("Could not resolve schema ID for " + topic, ex);
+            }
+        }
+
+        String topic = messageRouter.allTopics().iterator().next();
+        long encodedBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            TextMessage synthetic =
+                    new TextMessage("warmup", "warmup body " + i, "warmup", "warmup", (long) i, (i & 1) == 0);
+            if (wireFormat != WireFormat.V2) {
+                com.badrri.playground.avro.TextMessage avroMessage = TextMessageMapper.toAvro(synthetic);
+                messageRouter.route(avroMessage);
+                encodedBytes += avroSerializer.serialize(topic, avroMessage).length;
+            }
+            if (wireFormat != WireFormat.V1) {
+                com.badrri.playground.avro.v2.TextMessage v2Message = TextMessageMapper.toAvroV2(synthetic);
+                messageRouter.route(v2Message);
+                String v2Topic = wireFormat == WireFormat.DUAL ? topic + shadowTopicSuffix : topic;
+                encodedBytes += avroSerializer.serialize(v2Topic, v2Message).length;
+            }
+        }
+
+        complete = true;
+        logger.info("Producer warm-up done in {} ms: {} partitions across {}, schema ids [{}], {} encodes ({} bytes)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                partitions, messageRouter.allTopics(), schemaIds, iterations, encodedBytes);
+    }
+
+    // Fetches metadata, which also opens the first broker connection
+    private int fetchMetadata(String topic) {
+        if (multiClusterSender == null) {
+            return kafkaTemplate.partitionsFor(topic).size();
+        }
+        int partitions = 0;
+        boolean answered = false;
+        RuntimeException failure = null;
+        for (KafkaCluster cluster : multiClusterSender.clusters()) {
+            try {
+                List<PartitionInfo> clusterPartitions = cluster.template().partitionsFor(topic);
+                partitions += clusterPartitions.size();
+                answered = true;
+            } catch (RuntimeException ex) {
+                logger.warn("Cluster [{}] did not answer the warm-up metadata request, taking it out of rotation: {}",
+                        cluster.name(), ex.getMessage());
+                cluster.health().markDown();
+                failure = ex;
+            }
+        }
+        if (!answered) {
+            throw failure;
+        }
+        return partitions;
+    }
+}
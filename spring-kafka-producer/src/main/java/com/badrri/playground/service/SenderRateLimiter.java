@@ -0,0 +1,180 @@
+package com.badrri.playground.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-sender token buckets that share a total ingest rate by weight.
+ * <p>
+ * Each bucket is a single CAS-updated theoretical arrival time (GCRA), so
+ * admission never locks and senders only contend with themselves. Every
+ * rebalance the total rate is split across the senders active in the last
+ * interval in proportion to their weights (weighted fair share), and buckets
+ * idle for longer than the eviction timeout are dropped.
+ * <p>
+ * The sender comes from the request body, so the number of buckets is capped
+ * at {@code playground.ratelimit.max-senders}. Once the cap is reached, new
+ * senders without a configured weight share one overflow bucket until
+ * eviction makes room, so rotating sender strings cannot grow the map without
+ * bound and only throttle each other.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.ratelimit.enabled", havingValue = "true")
+public class SenderRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SenderRateLimiter.class);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflow;
+    private final double totalPermitsPerSecond;
+    private final double minPermitsPerSecond;
+    private final int burst;
+    private final Map<String, Double> weights;
+    private final long idleEvictionNanos;
+    private final long rebalanceIntervalNanos;
+    private final int maxSenders;
+
+    private volatile double activeWeight;
+
+    public SenderRateLimiter(@Value("${playground.ratelimit.total-permits-per-second:50000}") double totalPermitsPerSecond,
+                             @Value("${playground.ratelimit.min-permits-per-second:10}") double minPermitsPerSecond,
+                             @Value("${playground.ratelimit.burst:200}") int burst,
+                             @Value("${playground.ratelimit.weights:}") String weights,
+                             @Value("${playground.ratelimit.idle-eviction-ms:60000}") long idleEvictionMs,
+                             @Value("${playground.ratelimit.rebalance-interval-ms:1000}") long rebalanceIntervalMs,
+                             @Value("${playground.ratelimit.max-senders:100000}") int maxSenders) {
+        this.totalPermitsPerSecond = totalPermitsPerSecond;
+        this.minPermitsPerSecond = minPermitsPerSecond;
+        this.burst = burst;
+        this.weights = parseWeights(weights);
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+        this.rebalanceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(rebalanceIntervalMs);
+        this.maxSenders = maxSenders;
+        this.overflow = new Bucket(1.0, intervalNanos(1.0, 1.0));
+    }
+
+    /**
+     * Takes one permit for the sender.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until a permit is available
+     */
+    public long tryAcquire(String sender) {
+        return tryAcquire(sender, 1);
+    }
+
+    /**
+     * Takes {@code permits} permits for the sender at once. A request for more
+     * than the burst is admitted only while the sender's bucket is full, and
+     * leaves the sender throttled until the excess has been paid back.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until the permits are available
+     */
+    public long tryAcquire(String sender, int permits) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key(sender));
+        if (bucket == null) {
+            // The size check races with other new senders, so the map may overshoot by a few concurrent callers
+            bucket = buckets.size() < maxSenders || weights.containsKey(key(sender))
+                    ? buckets.computeIfAbsent(key(sender), this::newBucket)
+                    : overflow;
+        }
+        return bucket.tryAcquire(now, permits, burst);
+    }
+
+    @Scheduled(fixedDelayString = "${playground.ratelimit.rebalance-interval-ms:1000}")
+    public void rebalance() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idleSince(now - idleEvictionNanos));
+
+        double weightSum = overflow.idleSince(now - rebalanceIntervalNanos) ? 0 : overflow.weight;
+        for (Bucket bucket : buckets.values()) {
+            if (!bucket.idleSince(now - rebalanceIntervalNanos)) {
+                weightSum += bucket.weight;
+            }
+        }
+        activeWeight = weightSum;
+        overflow.intervalNanos = intervalNanos(overflow.weight, Math.max(weightSum, overflow.weight));
+        for (Bucket bucket : buckets.values()) {
+            bucket.intervalNanos = intervalNanos(bucket.weight, Math.max(weightSum, bucket.weight));
+        }
+        logger.debug("Rebalanced {} sender buckets, active weight {}", buckets.size(), weightSum);
+    }
+
+    double permitsPerSecond(String sender) {
+        Bucket bucket = buckets.get(key(sender));
+        return bucket == null ? 0 : (double) NANOS_PER_SECOND / bucket.intervalNanos;
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private Bucket newBucket(String sender) {
+        double weight = weights.getOrDefault(sender, 1.0);
+        return new Bucket(weight, intervalNanos(weight, activeWeight + weight));
+    }
+
+    private long intervalNanos(double weight, double weightSum) {
+        double permitsPerSecond = Math.max(minPermitsPerSecond, totalPermitsPerSecond * weight / weightSum);
+        return Math.max(1, (long) (NANOS_PER_SECOND / permitsPerSecond));
+    }
+
+    private static String key(String sender) {
+        return sender == null ? "" : sender;
+    }
+
+    private static Map<String, Double> parseWeights(String weights) {
+        Map<String, Double> parsed = new HashMap<>();
+        for (String entry : weights.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator > 0) {
+                parsed.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+
+    private static final class Bucket {
+
+        private final double weight;
+        // Theoretical arrival time of the next request; the whole bucket state in one word
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private volatile long intervalNanos;
+
+        private Bucket(double weight, long intervalNanos) {
+            this.weight = weight;
+            this.intervalNanos = intervalNanos;
+        }
+
+        private long tryAcquire(long now, int permits, int burst) {
+            long interval = intervalNanos;
+            long tolerance = interval * Math.max(burst, permits);
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + interval * permits;
+                long excess = next - now - tolerance;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean idleSince(long instant) {
+            return tat.get() < instant;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.badrri.playground.service;
+
+import java.util.Locale;
+
+/**
+ * Which Avro schema goes on the wire, selected with {@code playground.wire-format}.
+ */
+public enum WireFormat {
+
+    /** Original {@code com.badrri.playground.avro.TextMessage} only. */
+    V1,
+
+    /** Compact {@code com.badrri.playground.avro.v2.TextMessage} only. */
+    V2,
+
+    /** v1 on the routed topics plus a v2 copy on each shadow topic, for migrating consumers. */
+    DUAL;
+
+    public static WireFormat parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
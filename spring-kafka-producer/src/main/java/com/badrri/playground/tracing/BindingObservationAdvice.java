@@ -0,0 +1,81 @@
+package com.badrri.playground.tracing;
+
+import com.badrri.playground.controller.MessageController;
+import com.badrri.playground.model.TextMessage;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Times request body binding for the publish endpoint as a
+ * {@code playground.message.binding} observation, from just before the
+ * message converter reads the body until the bound object is returned.
+ * Bodies that fail to bind are rejected with 400; their binding observation
+ * is stopped with the error when the request completes.
+ */
+@ControllerAdvice(assignableTypes = MessageController.class)
+public class BindingObservationAdvice extends RequestBodyAdviceAdapter {
+
+    public static final String OBSERVATION_NAME = "playground.message.binding";
+    private static final String ATTRIBUTE = BindingObservationAdvice.class.getName() + ".observation";
+
+    private final ObservationRegistry observationRegistry;
+
+    public BindingObservationAdvice(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == TextMessage.class && !observationRegistry.isNoop();
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        Observation observation = Observation.start(OBSERVATION_NAME, observationRegistry);
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        attributes.setAttribute(ATTRIBUTE, observation, RequestAttributes.SCOPE_REQUEST);
+        // afterBodyRead is skipped when the converter throws; this runs once the request completes either way
+        attributes.registerDestructionCallback(ATTRIBUTE, () -> stopUnbound(attributes, observation),
+                RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Observation observation) {
+            attributes.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            observation.stop();
+        }
+        return body;
+    }
+
+    private static void stopUnbound(RequestAttributes attributes, Observation observation) {
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != observation) {
+            return;
+        }
+        try {
+            if (attributes.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                    instanceof Throwable error) {
+                observation.error(error);
+            } else {
+                observation.error(new IllegalStateException("Request body was not bound"));
+            }
+        } finally {
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.badrri.playground.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Wraps the value serializer in a {@code playground.message.serialize}
+ * observation. The producer serializes on the sending thread inside the
+ * KafkaTemplate send observation, so the span nests under send-to-ack.
+ */
+public class ObservedSerializer<T> implements Serializer<T> {
+
+    public static final String OBSERVATION_NAME = "playground.message.serialize";
+
+    private final Serializer<T> delegate;
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedSerializer(Serializer<T> delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return observation(topic).observe(() -> delegate.serialize(topic, data));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        return observation(topic).observe(() -> delegate.serialize(topic, headers, data));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private Observation observation(String topic) {
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .lowCardinalityKeyValue("messaging.destination.name", topic);
+    }
+}
@@ -0,0 +1,285 @@
+package com.badrri.playground.websocket;
+
+import com.badrri.playground.delivery.DelayedDeliveryScheduler;
+import com.badrri.playground.model.TextMessage;
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.service.SenderRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent-connection ingest. Clients push {@code {"seq": n, "message": {...}}}
+ * frames with increasing sequence numbers and receive coalesced ack frames
+ * every {@code playground.websocket.ack-interval-ms}:
+ * {@code {"type": "ack", "ackedThrough": n, "failures": [...]}}, where every
+ * frame up to {@code ackedThrough} has settled and {@code failures} lists the
+ * ones among them that did not make it to Kafka.
+ * <p>
+ * A message with a future {@code deliverAt} goes to the delivery scheduler, as
+ * on the REST endpoint, and is acked once it is stored in the schedule topic.
+ * Without a scheduler such frames are failed rather than sent early.
+ * <p>
+ * Acks are flushed on a thread of their own, so a slow socket write never
+ * holds up the application's shared {@code @Scheduled} tasks.
+ * <p>
+ * WebSocket has no inbound flow control, so frames beyond
+ * {@code playground.websocket.max-in-flight} unacknowledged messages are
+ * failed straight away and the client is expected to back off and resend.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.websocket.enabled", havingValue = "true")
+public class MessageWebSocketHandler extends TextWebSocketHandler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWebSocketHandler.class);
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+
+    private final MessageProducerService messageProducerService;
+    private final SenderRateLimiter senderRateLimiter;
+    private final DelayedDeliveryScheduler deliveryScheduler;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final Map<String, SessionAcks> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ackFlusher;
+
+    @Autowired
+    public MessageWebSocketHandler(MessageProducerService messageProducerService,
+                                   @Nullable SenderRateLimiter senderRateLimiter,
+                                   @Nullable DelayedDeliveryScheduler deliveryScheduler,
+                                   ObjectMapper objectMapper,
+                                   @Value("${playground.websocket.max-in-flight:4096}") int maxInFlight,
+                                   @Value("${playground.websocket.ack-interval-ms:20}") long ackIntervalMs) {
+        this(messageProducerService, senderRateLimiter, deliveryScheduler, objectMapper, maxInFlight, ackIntervalMs,
+                true);
+    }
+
+    MessageWebSocketHandler(MessageProducerService messageProducerService,
+                            @Nullable SenderRateLimiter senderRateLimiter,
+                            @Nullable DelayedDeliveryScheduler deliveryScheduler,
+                            ObjectMapper objectMapper,
+                            int maxInFlight,
+                            long ackIntervalMs,
+                            boolean startFlusher) {
+        this.messageProducerService = messageProducerService;
+        this.senderRateLimiter = senderRateLimiter;
+        this.deliveryScheduler = deliveryScheduler;
+        this.objectMapper = objectMapper;
+        this.maxInFlight = maxInFlight;
+        this.ackFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-ack-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (startFlusher) {
+            ackFlusher.scheduleWithFixedDelay(this::flushAcks, ackIntervalMs, ackIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(), new SessionAcks(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, org.springframework.web.socket.TextMessage frame)
+            throws IOException {
+        SessionAcks acks = sessions.get(session.getId());
+        PublishFrame publish;
+        try {
+            publish = objectMapper.readValue(frame.getPayload(), PublishFrame.class);
+        } catch (JsonProcessingException ex) {
+            session.close(CloseStatus.BAD_DATA.withReason("Frames must be {\"seq\": n, \"message\": {...}}"));
+            return;
+        }
+
+        long seq = publish.seq();
+        if (!acks.receive(seq)) {
+            session.close(CloseStatus.BAD_DATA.withReason("Sequence numbers must increase"));
+            return;
+        }
+        TextMessage message = publish.message();
+        if (message == null) {
+            acks.settle(seq, "Missing message");
+            return;
+        }
+        if (acks.inFlight() > maxInFlight) {
+            acks.settle(seq, "Too many unacknowledged messages");
+            return;
+        }
+        if (senderRateLimiter != null && senderRateLimiter.tryAcquire(message.sender()) > 0) {
+            acks.settle(seq, "Rate limit exceeded for sender");
+            return;
+        }
+
+        if (message.deliverAt() != null && message.deliverAt().toEpochMilli() > System.currentTimeMillis()) {
+            schedule(acks, seq, message);
+            return;
+        }
+
+        try {
+            CompletableFuture<Void> sent = TextMessageMapper.fitsV1(message.messageId())
+                    ? messageProducerService.sendMessage(TextMessageMapper.toAvro(message))
+                    : messageProducerService.sendMessageV2(TextMessageMapper.toAvroV2(message));
+            sent.whenComplete((result, ex) -> acks.settle(seq, ex == null ? null : ex.getMessage()));
+        } catch (RuntimeException ex) {
+            acks.settle(seq, ex.getMessage());
+        }
+    }
+
+    // Same checks as the REST endpoint: the release happens after the ack, where a failure can no longer be reported
+    private void schedule(SessionAcks acks, long seq, TextMessage message) {
+        if (deliveryScheduler == null) {
+            acks.settle(seq, "Scheduled delivery is disabled");
+            return;
+        }
+        if (message.sender() == null || message.receiver() == null) {
+            acks.settle(seq, "sender and receiver are required");
+            return;
+        }
+        if (!messageProducerService.canCarry(message.messageId())) {
+            acks.settle(seq, "messageId does not fit the configured wire format");
+            return;
+        }
+        try {
+            deliveryScheduler.schedule(TextMessageMapper.toAvroV2(message), message.deliverAt().toEpochMilli())
+                    .whenComplete((result, ex) -> acks.settle(seq, ex == null ? null : ex.getMessage()));
+        } catch (RuntimeException ex) {
+            acks.settle(seq, ex.getMessage());
+        }
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    void flushAcks() {
+        for (SessionAcks acks : sessions.values()) {
+            AckFrame ack = acks.drain();
+            if (ack == null) {
+                continue;
+            }
+            try {
+                acks.session.sendMessage(new org.springframework.web.socket.TextMessage(objectMapper.writeValueAsString(ack)));
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Could not send ack to WebSocket session {}: {}", acks.session.getId(), ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        ackFlusher.shutdownNow();
+    }
+
+    public record PublishFrame(long seq, TextMessage message) {
+    }
+
+    public record AckFrame(String type, long ackedThrough, List<Failure> failures) {
+    }
+
+    public record Failure(long seq, String error) {
+    }
+
+    /**
+     * Frames in arrival order with their settle state. The contiguous settled
+     * prefix is popped on each flush, so memory is bounded by the in-flight window.
+     */
+    private static final class SessionAcks {
+
+        private final WebSocketSession session;
+        private final ArrayDeque<Pending> received = new ArrayDeque<>();
+        private final Map<Long, Pending> bySeq = new HashMap<>();
+        private final List<Failure> failures = new ArrayList<>();
+        private long lastReceived = Long.MIN_VALUE;
+        private long ackedThrough = -1;
+        private boolean dirty;
+
+        private SessionAcks(WebSocketSession session) {
+            this.session = session;
+        }
+
+        synchronized boolean receive(long seq) {
+            if (seq <= lastReceived) {
+                return false;
+            }
+            lastReceived = seq;
+            Pending pending = new Pending(seq);
+            received.addLast(pending);
+            bySeq.put(seq, pending);
+            return true;
+        }
+
+        synchronized int inFlight() {
+            return received.size();
+        }
+
+        synchronized void settle(long seq, String error) {
+            Pending pending = bySeq.remove(seq);
+            if (pending == null) {
+                return;
+            }
+            pending.settled = true;
+            if (error != null) {
+                failures.add(new Failure(seq, error));
+            }
+            dirty = true;
+        }
+
+        synchronized AckFrame drain() {
+            if (!dirty) {
+                return null;
+            }
+            while (!received.isEmpty() && received.peekFirst().settled) {
+                ackedThrough = received.pollFirst().seq;
+            }
+            // Failures are reported once the contiguous ack has passed them
+            List<Failure> reported = new ArrayList<>();
+            failures.removeIf(failure -> failure.seq() <= ackedThrough && reported.add(failure));
+            dirty = !failures.isEmpty();
+            if (ackedThrough < 0 && reported.isEmpty()) {
+                return null;
+            }
+            return new AckFrame("ack", ackedThrough, reported);
+        }
+
+        private static final class Pending {
+
+            private final long seq;
+            private boolean settled;
+
+            private Pending(long seq) {
+                this.seq = seq;
+            }
+        }
+    }
+}
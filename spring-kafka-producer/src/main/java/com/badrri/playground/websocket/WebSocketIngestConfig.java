@@ -0,0 +1,30 @@
+package com.badrri.playground.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(name = "playground.websocket.enabled", havingValue = "true")
+public class WebSocketIngestConfig implements WebSocketConfigurer {
+
+    private final MessageWebSocketHandler messageWebSocketHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketIngestConfig(MessageWebSocketHandler messageWebSocketHandler,
+                                 @Value("${playground.websocket.allowed-origins:}") String[] allowedOrigins) {
+        this.messageWebSocketHandler = messageWebSocketHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // An empty list leaves Spring's same-origin check in place; cross-origin pages must be listed explicitly
+        registry.addHandler(messageWebSocketHandler, "/ws/messages")
+                .setAllowedOrigins(allowedOrigins);
+    }
+}
@@ -3,7 +3,7 @@ package com.badrri.playground;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "playground.warmup.enabled=false")
 class PlaygroundApplicationTests {
 
 	@Test
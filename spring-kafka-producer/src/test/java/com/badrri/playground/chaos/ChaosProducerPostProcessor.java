@@ -0,0 +1,156 @@
+package com.badrri.playground.chaos;
+
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.ProducerPostProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Degrades the producer on demand: extra ack latency, a partition whose leader
+ * is gone for a while, and a full record accumulator.
+ * <p>
+ * Faults are applied at the producer boundary rather than inside the broker,
+ * so a scenario has the same outcome on every run. A lost leader holds the
+ * partition's records until it comes back, as the producer's own retries
+ * would, and fails them once the outage outlasts the delivery timeout.
+ */
+public class ChaosProducerPostProcessor<K, V> implements ProducerPostProcessor<K, V>, AutoCloseable {
+
+    private final long deliveryTimeoutNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chaos-producer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long ackLatencyNanos;
+    private volatile int lostLeaderPartition = -1;
+    private volatile long leaderBackAtNanos;
+    private volatile long bufferFullBlockNanos = -1;
+
+    public ChaosProducerPostProcessor(Duration deliveryTimeout) {
+        this.deliveryTimeoutNanos = deliveryTimeout.toNanos();
+    }
+
+    public void ackLatency(Duration latency) {
+        ackLatencyNanos = latency.toNanos();
+    }
+
+    public void loseLeader(int partition, Duration outage) {
+        leaderBackAtNanos = System.nanoTime() + outage.toNanos();
+        lostLeaderPartition = partition;
+    }
+
+    /**
+     * Every send blocks for {@code maxBlock} and then fails, as it does when the accumulator has no room.
+     */
+    public void fillBuffer(Duration maxBlock) {
+        bufferFullBlockNanos = maxBlock.toNanos();
+    }
+
+    public void drainBuffer() {
+        bufferFullBlockNanos = -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Producer<K, V> apply(Producer<K, V> producer) {
+        return (Producer<K, V>) Proxy.newProxyInstance(Producer.class.getClassLoader(), new Class<?>[]{Producer.class},
+                (proxy, method, args) -> "send".equals(method.getName())
+                        ? send(producer, (ProducerRecord<K, V>) args[0], args.length > 1 ? (Callback) args[1] : null)
+                        : delegate(producer, method, args));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private Future<RecordMetadata> send(Producer<K, V> producer, ProducerRecord<K, V> record, Callback callback) {
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        Callback completion = (metadata, ex) -> {
+            if (callback != null) {
+                callback.onCompletion(metadata, ex);
+            }
+            if (ex == null) {
+                result.complete(metadata);
+            } else {
+                result.completeExceptionally(ex);
+            }
+        };
+
+        long blockNanos = bufferFullBlockNanos;
+        if (blockNanos >= 0) {
+            block(blockNanos);
+            completion.onCompletion(null, new BufferExhaustedException(
+                    "Failed to allocate memory within the configured max blocking time "
+                            + TimeUnit.NANOSECONDS.toMillis(blockNanos) + " ms."));
+            return result;
+        }
+
+        Callback delayed = (metadata, ex) -> {
+            long latency = ackLatencyNanos;
+            if (latency > 0) {
+                scheduler.schedule(() -> completion.onCompletion(metadata, ex), latency, TimeUnit.NANOSECONDS);
+            } else {
+                completion.onCompletion(metadata, ex);
+            }
+        };
+
+        long outageNanos = leaderBackAtNanos - System.nanoTime();
+        if (outageNanos > 0 && partitionOf(producer, record) == lostLeaderPartition) {
+            if (outageNanos > deliveryTimeoutNanos) {
+                scheduler.schedule(() -> completion.onCompletion(null, new TimeoutException(
+                        "Expiring 1 record(s) for " + record.topic() + "-" + lostLeaderPartition
+                                + ": leader not available")), deliveryTimeoutNanos, TimeUnit.NANOSECONDS);
+            } else {
+                scheduler.schedule(() -> producer.send(record, delayed), outageNanos, TimeUnit.NANOSECONDS);
+            }
+            return result;
+        }
+        producer.send(record, delayed);
+        return result;
+    }
+
+    private int partitionOf(Producer<K, V> producer, ProducerRecord<K, V> record) {
+        if (record.partition() != null) {
+            return record.partition();
+        }
+        if (!(record.key() instanceof String key)) {
+            return -1;
+        }
+        int partitions = producer.partitionsFor(record.topic()).size();
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static void block(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.badrri.playground.chaos;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process schema registry that can be told to answer lookups with HTTP 500.
+ * <p>
+ * A lookup that has succeeded once is answered from the cache afterwards,
+ * like {@code CachedSchemaRegistryClient}, so only cold lookups see the
+ * injected failures.
+ */
+public class FaultInjectingSchemaRegistry implements InvocationHandler {
+
+    private static final List<String> REMOTE_CALLS = List.of("register", "getId", "getSchemaBy", "getLatest", "getVersion");
+
+    private final SchemaRegistryClient delegate = new MockSchemaRegistryClient();
+    private final SchemaRegistryClient client = (SchemaRegistryClient) Proxy.newProxyInstance(
+            SchemaRegistryClient.class.getClassLoader(), new Class<?>[]{SchemaRegistryClient.class}, this);
+    private final Set<List<Object>> cached = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private final AtomicInteger failuresInjected = new AtomicInteger();
+
+    public SchemaRegistryClient client() {
+        return client;
+    }
+
+    /**
+     * The fault-free registry behind the client, for consumers that verify what was written.
+     */
+    public SchemaRegistryClient delegate() {
+        return delegate;
+    }
+
+    public void failNext(int lookups) {
+        failuresRemaining.set(lookups);
+    }
+
+    public int failuresInjected() {
+        return failuresInjected.get();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (isRemoteCall(method)) {
+            List<Object> lookup = new ArrayList<>();
+            lookup.add(method.getName());
+            if (args != null) {
+                lookup.addAll(Arrays.asList(args));
+            }
+            if (!cached.contains(lookup)) {
+                if (failuresRemaining.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                    failuresInjected.incrementAndGet();
+                    throw new RestClientException("Internal Server Error", 500, 50001);
+                }
+                Object result = delegate(method, args);
+                cached.add(lookup);
+                return result;
+            }
+        }
+        return delegate(method, args);
+    }
+
+    private Object delegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static boolean isRemoteCall(Method method) {
+        return REMOTE_CALLS.stream().anyMatch(method.getName()::startsWith);
+    }
+}
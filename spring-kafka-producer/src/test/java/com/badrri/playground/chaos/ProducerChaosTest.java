@@ -0,0 +1,295 @@
+package com.badrri.playground.chaos;
+
+import com.badrri.playground.routing.MessageRouter;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes a fixed load through {@link MessageProducerService} into an
+ * embedded broker while one fault is injected, then reports throughput,
+ * latency percentiles and loss for the scenario. A message counts as accepted
+ * once the send call returns, which is when {@code POST /api/messages}
+ * answers 202; loss counts accepted messages that never reached the topic.
+ * Run with {@code ./gradlew chaosTest}.
+ */
+@Tag("chaos")
+class ProducerChaosTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProducerChaosTest.class);
+    private static final int MESSAGES = 2_000;
+    private static final int PARTITIONS = 3;
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(2);
+
+    private static EmbeddedKafkaBroker broker;
+
+    private final FaultInjectingSchemaRegistry registry = new FaultInjectingSchemaRegistry();
+    private final ChaosProducerPostProcessor<String, com.badrri.playground.avro.TextMessage> chaos =
+            new ChaosProducerPostProcessor<>(DELIVERY_TIMEOUT);
+    private DefaultKafkaProducerFactory<String, com.badrri.playground.avro.TextMessage> producerFactory;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (producerFactory != null) {
+            producerFactory.destroy();
+        }
+        chaos.close();
+    }
+
+    @Test
+    void baseline() throws Exception {
+        // When
+        ScenarioResult result = run("baseline", i -> { });
+
+        // Then
+        assertThat(result.failed()).isZero();
+        assertThat(result.lost()).isZero();
+    }
+
+    @Test
+    void brokerAckLatency() throws Exception {
+        // When
+        ScenarioResult result = run("broker-latency", i -> {
+            if (i == 0) {
+                chaos.ackLatency(Duration.ofMillis(50));
+            }
+        });
+
+        // Then
+        assertThat(result.failed()).isZero();
+        assertThat(result.lost()).isZero();
+        assertThat(result.p99Micros()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(50));
+    }
+
+    @Test
+    void partitionLeaderLossWithinDeliveryTimeout() throws Exception {
+        // When
+        ScenarioResult result = run("leader-loss-short", i -> {
+            if (i == MESSAGES / 4) {
+                chaos.loseLeader(0, Duration.ofSeconds(1));
+            }
+        });
+
+        // Then
+        assertThat(result.failed()).isZero();
+        assertThat(result.lost()).isZero();
+        assertThat(result.p99Micros()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(500));
+    }
+
+    @Test
+    void partitionLeaderLossPastDeliveryTimeout() throws Exception {
+        // When
+        ScenarioResult result = run("leader-loss-long", i -> {
+            if (i == MESSAGES / 4) {
+                chaos.loseLeader(0, DELIVERY_TIMEOUT.multipliedBy(3));
+            }
+        });
+
+        // Then: the client already had its 202 for every record that timed out
+        assertThat(result.failed()).isPositive();
+        assertThat(result.acked() + result.failed()).isEqualTo(MESSAGES);
+        assertThat(result.lost()).isPositive().isEqualTo(result.accepted() - result.acked());
+        assertThat(result.ackedLost()).isZero();
+    }
+
+    @Test
+    void schemaRegistryErrorsOnColdStart() throws Exception {
+        // When
+        ScenarioResult result = run("registry-5xx-cold", i -> {
+            if (i == 0) {
+                registry.failNext(25);
+            }
+        });
+
+        // Then
+        assertThat(result.failed()).isEqualTo(registry.failuresInjected()).isEqualTo(25);
+        assertThat(result.lost()).isZero();
+    }
+
+    @Test
+    void schemaRegistryOutageWithWarmCache() throws Exception {
+        // When
+        ScenarioResult result = run("registry-5xx-warm", i -> {
+            if (i == 1) {
+                registry.failNext(Integer.MAX_VALUE);
+            }
+        });
+
+        // Then
+        assertThat(result.failed()).isZero();
+        assertThat(result.lost()).isZero();
+    }
+
+    @Test
+    void fullProducerBuffer() throws Exception {
+        // When
+        ScenarioResult result = run("buffer-full", i -> {
+            if (i == MESSAGES / 2) {
+                chaos.fillBuffer(Duration.ofMillis(5));
+            } else if (i == MESSAGES / 2 + 100) {
+                chaos.drainBuffer();
+            }
+        });
+
+        // Then: buffer exhaustion fails the send future, after the 202
+        assertThat(result.failed()).isEqualTo(100);
+        assertThat(result.lost()).isEqualTo(100);
+        assertThat(result.ackedLost()).isZero();
+    }
+
+    /**
+     * Sends {@link #MESSAGES} messages, calling {@code beforeMessage} with each index so faults start at a fixed point.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ScenarioResult run(String scenario, IntConsumer beforeMessage) throws Exception {
+        String topic = "chaos-" + scenario;
+        broker.addTopics(new NewTopic(topic, PARTITIONS, (short) 1));
+
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) DELIVERY_TIMEOUT.toMillis());
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 1000);
+        Serializer<com.badrri.playground.avro.TextMessage> valueSerializer = (Serializer) new KafkaAvroSerializer(
+                registry.client(), Map.of("schema.registry.url", "mock://chaos"));
+        producerFactory = new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
+        producerFactory.addPostProcessor(chaos);
+        MessageProducerService service = new MessageProducerService(new KafkaTemplate<>(producerFactory),
+                MessageRouter.singleTopic(topic), null, null, null, null, "v1", "");
+
+        Set<Integer> accepted = new HashSet<>();
+        Set<Integer> acked = ConcurrentHashMap.newKeySet();
+        long[] latencies = new long[MESSAGES];
+        Arrays.fill(latencies, -1);
+        int failedOnSend = 0;
+        List<CompletableFuture<Void>> results = new ArrayList<>(MESSAGES);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            beforeMessage.accept(i);
+            int messageId = i;
+            com.badrri.playground.avro.TextMessage message = TestDataFactory.createAvroMessage(
+                    "Chaos", "Body " + i, "sender-" + (i % 50), "receiver", messageId, false);
+            long sentAt = System.nanoTime();
+            try {
+                results.add(service.sendMessage(message).whenComplete((ignored, ex) -> {
+                    if (ex == null) {
+                        latencies[messageId] = System.nanoTime() - sentAt;
+                        acked.add(messageId);
+                    }
+                }));
+                accepted.add(messageId);
+            } catch (RuntimeException ex) {
+                // Serialization and buffer errors surface synchronously from the send call
+                failedOnSend++;
+            }
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .get(DELIVERY_TIMEOUT.multipliedBy(10).toMillis(), TimeUnit.MILLISECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        int failedOnAck = (int) results.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        long[] ackLatencies = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        Set<Integer> delivered = delivered(topic, acked);
+        ScenarioResult result = new ScenarioResult(
+                scenario,
+                accepted.size(),
+                acked.size(),
+                failedOnSend + failedOnAck,
+                (int) accepted.stream().filter(id -> !delivered.contains(id)).count(),
+                (int) acked.stream().filter(id -> !delivered.contains(id)).count(),
+                acked.size() * 1e9 / elapsedNanos,
+                TimeUnit.NANOSECONDS.toMicros(percentile(ackLatencies, 0.50)),
+                TimeUnit.NANOSECONDS.toMicros(percentile(ackLatencies, 0.99)));
+        logger.info("{}", result);
+        return result;
+    }
+
+    /**
+     * IDs read back from the topic; stops once every acked ID has been seen, or after 30 seconds.
+     */
+    private Set<Integer> delivered(String topic, Set<Integer> acked) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("chaos-" + topic, "false", broker);
+        KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer(registry.delegate(),
+                Map.of("schema.registry.url", "mock://chaos", "specific.avro.reader", true));
+        Set<Integer> seen = new HashSet<>();
+        try (Consumer<String, Object> consumer = new KafkaConsumer<>(props, new StringDeserializer(), deserializer)) {
+            consumer.subscribe(List.of(topic));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!seen.containsAll(acked) && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, Object> record : consumer.poll(Duration.ofMillis(500))) {
+                    seen.add(((com.badrri.playground.avro.TextMessage) record.value()).getMessageId());
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    /**
+     * {@code lost} is accepted but never delivered; {@code ackedLost} is the subset Kafka had acknowledged.
+     */
+    private record ScenarioResult(String scenario, int accepted, int acked, int failed, int lost, int ackedLost,
+                                  double messagesPerSecond, long p50Micros, long p99Micros) {
+
+        @Override
+        public String toString() {
+            return String.format("%-20s accepted=%5d acked=%5d failed=%5d lost=%d (acked %d) "
+                            + "throughput=%,10.0f msg/s p50=%,8d us p99=%,8d us",
+                    scenario, accepted, acked, failed, lost, ackedLost, messagesPerSecond, p50Micros, p99Micros);
+        }
+    }
+}
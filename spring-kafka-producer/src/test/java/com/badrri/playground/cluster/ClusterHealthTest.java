@@ -0,0 +1,78 @@
+package com.badrri.playground.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ClusterHealthTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    void shouldScoreFullyWhenFastAndSucceeding() {
+        // Given
+        ClusterHealth health = new ClusterHealth(0.5, 50, 0.5);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            health.record(FAST, true);
+        }
+
+        // Then
+        assertThat(health.isAvailable()).isTrue();
+        assertThat(health.score()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldScaleScoreDownWithLatencyAboveTarget() {
+        // Given
+        ClusterHealth health = new ClusterHealth(1.0, 50, 0.5);
+
+        // When
+        health.record(TimeUnit.MILLISECONDS.toNanos(200), true);
+
+        // Then
+        assertThat(health.latencyMs()).isCloseTo(200, within(0.01));
+        assertThat(health.score()).isCloseTo(0.25, within(0.001));
+    }
+
+    @Test
+    void shouldMarkDownOnceErrorRateCrossesThreshold() {
+        // Given
+        ClusterHealth health = new ClusterHealth(0.2, 50, 0.5);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            health.record(FAST, false);
+        }
+        boolean availableAfterThree = health.isAvailable();
+        for (int i = 0; i < 3; i++) {
+            health.record(FAST, false);
+        }
+
+        // Then
+        assertThat(availableAfterThree).isTrue();
+        assertThat(health.isAvailable()).isFalse();
+        assertThat(health.score()).isZero();
+    }
+
+    @Test
+    void shouldStayDownUntilMarkedUp() {
+        // Given
+        ClusterHealth health = new ClusterHealth(1.0, 50, 0.5);
+        health.record(FAST, false);
+
+        // When
+        health.record(FAST, true);
+        boolean availableAfterSuccess = health.isAvailable();
+        health.markUp();
+
+        // Then
+        assertThat(availableAfterSuccess).isFalse();
+        assertThat(health.isAvailable()).isTrue();
+        assertThat(health.errorRate()).isZero();
+    }
+}
@@ -0,0 +1,210 @@
+package com.badrri.playground.cluster;
+
+import com.badrri.playground.testutil.TestDataFactory;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class MultiClusterSenderTest {
+
+    private static final String TOPIC = "text_message";
+
+    private MultiClusterSender sender;
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null) {
+            sender.close();
+        }
+    }
+
+    @Test
+    void shouldSendToFirstAvailableClusterInFailoverMode() throws Exception {
+        // Given
+        MockProducer<String, Object> primary = producer(true);
+        MockProducer<String, Object> secondary = producer(true);
+        sender = sender(MultiClusterSender.Mode.FAILOVER, cluster("primary", primary), cluster("secondary", secondary));
+
+        // When
+        sender.send(TOPIC, "1", TestDataFactory.createSampleAvroMessage()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(primary.history()).hasSize(1);
+        assertThat(secondary.history()).isEmpty();
+    }
+
+    @Test
+    void shouldRetryRetriableFailureOnNextCluster() throws Exception {
+        // Given
+        MockProducer<String, Object> primary = producer(false);
+        MockProducer<String, Object> secondary = producer(true);
+        sender = sender(MultiClusterSender.Mode.FAILOVER, cluster("primary", primary), cluster("secondary", secondary));
+
+        // When
+        CompletableFuture<SendResult<String, Object>> result =
+                sender.send(TOPIC, "1", TestDataFactory.createSampleAvroMessage());
+        primary.errorNext(new TimeoutException("Expiring record"));
+        result.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(secondary.history()).singleElement()
+                .extracting(ProducerRecord::key).isEqualTo("1");
+    }
+
+    @Test
+    void shouldRetrySameKeyFailuresInOrderAndHoldLaterSendsUntilRetrySettles() throws Exception {
+        // Given
+        MockProducer<String, Object> primary = producer(false);
+        MockProducer<String, Object> secondary = producer(false);
+        sender = sender(MultiClusterSender.Mode.FAILOVER, cluster("primary", primary), cluster("secondary", secondary));
+        CompletableFuture<SendResult<String, Object>> first = sender.send(TOPIC, "k", message(1));
+        CompletableFuture<SendResult<String, Object>> second = sender.send(TOPIC, "k", message(2));
+
+        // When
+        primary.errorNext(new TimeoutException("Expiring record"));
+        primary.errorNext(new TimeoutException("Expiring record"));
+        CompletableFuture<SendResult<String, Object>> third = sender.send(TOPIC, "k", message(3));
+        awaitHistory(secondary, 1);
+        boolean secondRetryHeld = secondary.history().size() == 1;
+        secondary.completeNext();
+        first.get(5, TimeUnit.SECONDS);
+        awaitHistory(secondary, 2);
+        boolean thirdHeld = primary.history().size() == 2;
+        secondary.completeNext();
+        second.get(5, TimeUnit.SECONDS);
+        awaitHistory(primary, 3);
+        primary.completeNext();
+        third.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(secondRetryHeld).isTrue();
+        assertThat(thirdHeld).isTrue();
+        assertThat(secondary.history())
+                .extracting(record -> ((com.badrri.playground.avro.TextMessage) record.value()).getMessageId())
+                .containsExactly(1, 2);
+    }
+
+    @Test
+    void shouldNotRetryNonRetriableFailure() {
+        // Given
+        MockProducer<String, Object> primary = producer(false);
+        MockProducer<String, Object> secondary = producer(true);
+        sender = sender(MultiClusterSender.Mode.FAILOVER, cluster("primary", primary), cluster("secondary", secondary));
+
+        // When
+        CompletableFuture<SendResult<String, Object>> result =
+                sender.send(TOPIC, "1", TestDataFactory.createSampleAvroMessage());
+        primary.errorNext(new SerializationException("Bad record"));
+
+        // Then
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(secondary.history()).isEmpty();
+    }
+
+    @Test
+    void shouldHoldKeyUntilOldClusterSettlesOnSwitchover() throws Exception {
+        // Given
+        MockProducer<String, Object> primary = producer(false);
+        MockProducer<String, Object> secondary = producer(true);
+        KafkaCluster primaryCluster = cluster("primary", primary);
+        sender = sender(MultiClusterSender.Mode.FAILOVER, primaryCluster, cluster("secondary", secondary));
+        CompletableFuture<SendResult<String, Object>> first =
+                sender.send(TOPIC, "k", TestDataFactory.createSampleAvroMessage());
+        for (int i = 0; i < 10; i++) {
+            primaryCluster.health().record(0, false);
+        }
+
+        // When
+        CompletableFuture<SendResult<String, Object>> second =
+                sender.send(TOPIC, "k", TestDataFactory.createSampleAvroMessage());
+        CompletableFuture<SendResult<String, Object>> third =
+                sender.send(TOPIC, "k", TestDataFactory.createSampleAvroMessage());
+        boolean heldWhileInFlight = secondary.history().isEmpty();
+        primary.completeNext();
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(second, third).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(heldWhileInFlight).isTrue();
+        assertThat(primary.history()).hasSize(1);
+        assertThat(secondary.history()).hasSize(2);
+    }
+
+    @Test
+    void shouldKeepKeysOnOneClusterAndSpreadAcrossClustersInWeightedMode() {
+        // Given
+        MockProducer<String, Object> east = producer(true);
+        MockProducer<String, Object> west = producer(true);
+        sender = sender(MultiClusterSender.Mode.WEIGHTED, cluster("east", east), cluster("west", west));
+
+        // When
+        Set<String> clusters = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String key = String.valueOf(i);
+            KafkaCluster selected = sender.select(key);
+            assertThat(sender.select(key)).isSameAs(selected);
+            clusters.add(selected.name());
+        }
+
+        // Then
+        assertThat(clusters).containsExactlyInAnyOrder("east", "west");
+    }
+
+    @Test
+    void shouldSkipDownClusterInWeightedMode() {
+        // Given
+        KafkaCluster east = cluster("east", producer(true));
+        KafkaCluster west = cluster("west", producer(true));
+        sender = sender(MultiClusterSender.Mode.WEIGHTED, east, west);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            east.health().record(0, false);
+        }
+
+        // Then
+        for (int i = 0; i < 50; i++) {
+            assertThat(sender.select(String.valueOf(i))).isSameAs(west);
+        }
+    }
+
+    private static com.badrri.playground.avro.TextMessage message(int messageId) {
+        return TestDataFactory.createAvroMessage("Title", "Body", "sender", "receiver", messageId, false);
+    }
+
+    private static void awaitHistory(MockProducer<String, Object> producer, int size) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> producer.history().size() >= size);
+    }
+
+    private static MockProducer<String, Object> producer(boolean autoComplete) {
+        return new MockProducer<>(autoComplete, null, new StringSerializer(), (topic, data) -> new byte[0]);
+    }
+
+    private static KafkaCluster cluster(String name, MockProducer<String, Object> producer) {
+        return new KafkaCluster(name, new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)), null, 1.0,
+                new ClusterHealth(0.2, 50, 0.5));
+    }
+
+    private static MultiClusterSender sender(MultiClusterSender.Mode mode, KafkaCluster... clusters) {
+        return new MultiClusterSender(List.of(clusters), mode, Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,38 @@
+package com.badrri.playground.config;
+
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaRequest;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvroSerializationRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    AvroSerializationRuntimeHintsTest() {
+        new AvroSerializationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterGeneratedAvroClasses() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(com.badrri.playground.avro.TextMessage.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onField(com.badrri.playground.avro.TextMessage.class, "SCHEMA$")).accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterSerializerConstructor() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(KafkaAvroSerializer.class)).accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterSchemaRegistryPayloads() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(RegisterSchemaRequest.class)).accepts(hints);
+    }
+}
@@ -15,7 +15,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 @SpringBootTest
 @TestPropertySource(properties = {
         "spring.kafka.bootstrap-servers=localhost:19092",
-        "spring.kafka.properties.schema.registry.url=http://localhost:18081"
+        "spring.kafka.properties.schema.registry.url=http://localhost:18081",
+        "playground.warmup.enabled=false"
 })
 class KafkaProducerConfigTest {
 
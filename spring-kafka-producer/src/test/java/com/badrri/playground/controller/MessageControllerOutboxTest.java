@@ -0,0 +1,110 @@
+package com.badrri.playground.controller;
+
+import com.badrri.playground.outbox.OutboxStore;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "playground.warmup.enabled=false")
+class MessageControllerOutboxTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private MessageProducerService messageProducerService;
+
+    @MockitoBean
+    private OutboxStore outboxStore;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void shouldAcceptOnceCommittedToOutbox() throws Exception {
+        // Given
+        String json = objectMapper.writeValueAsString(TestDataFactory.createSampleRestDto());
+        when(messageProducerService.canCarry(any())).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.messageId").value("1001"));
+        verify(outboxStore).commit(any(com.badrri.playground.avro.v2.TextMessage.class));
+        verify(messageProducerService, never()).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenOutboxCannotCommit() throws Exception {
+        // Given
+        String json = objectMapper.writeValueAsString(TestDataFactory.createSampleRestDto());
+        when(messageProducerService.canCarry(any())).thenReturn(true);
+        doThrow(new IllegalStateException("Outbox commit timed out"))
+                .when(outboxStore).commit(any(com.badrri.playground.avro.v2.TextMessage.class));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("Message could not be stored in the outbox"));
+    }
+
+    @Test
+    void shouldRejectMessagesWithoutSenderBeforeCommitting() throws Exception {
+        // Given
+        String json = objectMapper.writeValueAsString(
+                TestDataFactory.createRestDto("Title", "Body", null, "user456", 1001L, false));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("sender and receiver are required"));
+        verify(outboxStore, never()).commit(any(com.badrri.playground.avro.v2.TextMessage.class));
+    }
+
+    @Test
+    void shouldRejectMulticastWhileOutboxModeIsOn() throws Exception {
+        // Given
+        String json = """
+                {"title":"Notice","body":"Body","sender":"ops","receivers":["user1","user2"],"messageId":45,"isImportant":true}
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/messages/multicast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("Multicast is not available while outbox mode is enabled"));
+        verify(outboxStore, never()).commit(any(com.badrri.playground.avro.v2.TextMessage.class));
+    }
+}
@@ -0,0 +1,70 @@
+package com.badrri.playground.controller;
+
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "playground.warmup.enabled=false",
+        "playground.ratelimit.enabled=true",
+        "playground.ratelimit.total-permits-per-second=1",
+        "playground.ratelimit.min-permits-per-second=1",
+        "playground.ratelimit.burst=2"
+})
+class MessageControllerRateLimitTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private MessageProducerService messageProducerService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenSenderExceedsQuota() throws Exception {
+        // Given
+        String noisy = objectMapper.writeValueAsString(
+                TestDataFactory.createRestDto("Spam", "Body", "noisy-sender", "receiver", 1L, false));
+        String quiet = objectMapper.writeValueAsString(
+                TestDataFactory.createRestDto("Hello", "Body", "quiet-sender", "receiver", 2L, false));
+
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/messages").contentType(MediaType.APPLICATION_JSON).content(noisy))
+                    .andExpect(status().isAccepted());
+        }
+        mockMvc.perform(post("/api/messages").contentType(MediaType.APPLICATION_JSON).content(noisy))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(post("/api/messages").contentType(MediaType.APPLICATION_JSON).content(quiet))
+                .andExpect(status().isAccepted());
+
+        verify(messageProducerService, times(3)).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
+    }
+}
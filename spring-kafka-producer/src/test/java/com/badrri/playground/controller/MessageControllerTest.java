@@ -1,6 +1,9 @@
 package com.badrri.playground.controller;
 
+import com.badrri.playground.delivery.DelayedDeliveryScheduler;
+import com.badrri.playground.model.TextMessageMapper;
 import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.service.MulticastSender;
 import com.badrri.playground.testutil.TestDataFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,13 +18,21 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "playground.warmup.enabled=false")
 class MessageControllerTest {
 
     @Autowired
@@ -33,6 +44,12 @@ class MessageControllerTest {
     @MockitoBean
     private MessageProducerService messageProducerService;
 
+    @MockitoBean
+    private DelayedDeliveryScheduler deliveryScheduler;
+
+    @MockitoBean
+    private MulticastSender multicastSender;
+
     @Captor
     private ArgumentCaptor<com.badrri.playground.avro.TextMessage> messageCaptor;
 
@@ -41,6 +58,9 @@ class MessageControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        // Same answer as the default v1 wire format
+        when(messageProducerService.canCarry(any())).thenAnswer(invocation ->
+                TextMessageMapper.fitsV1(invocation.getArgument(0)));
     }
 
     @Test
@@ -62,7 +82,7 @@ class MessageControllerTest {
     void shouldReturnCorrectResponseBody() throws Exception {
         // Given
         var message = TestDataFactory.createRestDto(
-                "Test", "Body", "sender1", "receiver1", 5555, true
+                "Test", "Body", "sender1", "receiver1", 5555L, true
         );
         String jsonContent = objectMapper.writeValueAsString(message);
 
@@ -79,7 +99,7 @@ class MessageControllerTest {
     void shouldHandleMessageWithImportantFlag() throws Exception {
         // Given
         var message = TestDataFactory.createRestDto(
-                "Urgent", "Critical alert", "admin", "ops-team", 9999, true
+                "Urgent", "Critical alert", "admin", "ops-team", 9999L, true
         );
         String jsonContent = objectMapper.writeValueAsString(message);
 
@@ -101,7 +121,7 @@ class MessageControllerTest {
                 "Sample Body",
                 "user123",
                 "user456",
-                7777,
+                7777L,
                 false
         );
         String jsonContent = objectMapper.writeValueAsString(message);
@@ -116,6 +136,201 @@ class MessageControllerTest {
         verify(messageProducerService).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
     }
 
+    @Test
+    void shouldSendIdsBeyondIntRangeThroughV2Path() throws Exception {
+        // Given
+        long messageId = 1L << 40;
+        var message = TestDataFactory.createRestDto("Title", "Body", "user123", "user456", messageId, false);
+
+        // When
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(message)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.messageId").value(Long.toString(messageId)));
+
+        // Then
+        verify(messageProducerService).sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class));
+    }
+
+    @Test
+    void shouldRejectIdsTheWireFormatCannotCarry() throws Exception {
+        // Given
+        var message = TestDataFactory.createRestDto("Title", "Body", "user123", "user456", 1L << 40, false);
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenThrow(new IllegalArgumentException("does not fit"));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(message)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("messageId does not fit the configured wire format"));
+    }
+
+    @Test
+    void shouldScheduleMessageWithFutureDeliverAt() throws Exception {
+        // Given
+        Instant deliverAt = Instant.now().plusSeconds(3600);
+        String json = """
+                {"title":"Later","body":"Body","sender":"user123","receiver":"user456","messageId":42,"isImportant":false,"deliverAt":"%s"}
+                """.formatted(deliverAt);
+        when(deliveryScheduler.schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.messageId").value("42"));
+
+        // Then
+        verify(deliveryScheduler).schedule(any(com.badrri.playground.avro.v2.TextMessage.class),
+                eq(deliverAt.toEpochMilli()));
+        verify(messageProducerService, never()).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
+    }
+
+    @Test
+    void shouldSendImmediatelyWhenDeliverAtHasPassed() throws Exception {
+        // Given
+        String json = """
+                {"title":"Now","body":"Body","sender":"user123","receiver":"user456","messageId":43,"isImportant":false,"deliverAt":"2020-01-01T00:00:00Z"}
+                """;
+
+        // When
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted());
+
+        // Then
+        verify(messageProducerService).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
+        verify(deliveryScheduler, never()).schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong());
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenScheduleIsFull() throws Exception {
+        // Given
+        String json = """
+                {"title":"Later","body":"Body","sender":"user123","receiver":"user456","messageId":44,"isImportant":false,"deliverAt":"%s"}
+                """.formatted(Instant.now().plusSeconds(3600));
+        when(deliveryScheduler.schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong()))
+                .thenThrow(new IllegalStateException("Delivery schedule is full"));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("Delivery schedule is full"));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenScheduleCannotPersist() throws Exception {
+        // Given
+        String json = """
+                {"title":"Later","body":"Body","sender":"user123","receiver":"user456","messageId":47,"isImportant":false,"deliverAt":"%s"}
+                """.formatted(Instant.now().plusSeconds(3600));
+        when(deliveryScheduler.schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Could not persist scheduled message")));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("Message could not be stored in the delivery schedule"));
+    }
+
+    @Test
+    void shouldRejectScheduledIdsTheWireFormatCannotCarry() throws Exception {
+        // Given
+        String json = """
+                {"title":"Later","body":"Body","sender":"user123","receiver":"user456","messageId":%d,"isImportant":false,"deliverAt":"%s"}
+                """.formatted(1L << 40, Instant.now().plusSeconds(3600));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("messageId does not fit the configured wire format"));
+        verify(deliveryScheduler, never()).schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong());
+    }
+
+    @Test
+    void shouldRejectScheduledMessageWithoutReceiver() throws Exception {
+        // Given
+        String json = """
+                {"title":"Later","body":"Body","sender":"user123","messageId":48,"isImportant":false,"deliverAt":"%s"}
+                """.formatted(Instant.now().plusSeconds(3600));
+
+        // When & Then
+        mockMvc.perform(post("/api/messages")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("sender and receiver are required"));
+        verify(deliveryScheduler, never()).schedule(any(com.badrri.playground.avro.v2.TextMessage.class), anyLong());
+    }
+
+    @Test
+    void shouldPublishMulticastToEveryReceiver() throws Exception {
+        // Given
+        String json = """
+                {"title":"Notice","body":"Body","sender":"ops","receivers":["user1","user2","user3"],"messageId":45,"isImportant":true}
+                """;
+        when(multicastSender.maxReceivers()).thenReturn(100);
+
+        // When
+        mockMvc.perform(post("/api/messages/multicast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.messageId").value("45"));
+
+        // Then
+        verify(multicastSender).send(any(com.badrri.playground.avro.v2.TextMessage.class),
+                eq(List.of("user1", "user2", "user3")));
+        verify(messageProducerService, never()).sendMessage(any(com.badrri.playground.avro.TextMessage.class));
+    }
+
+    @Test
+    void shouldRejectMulticastOverReceiverLimit() throws Exception {
+        // Given
+        String json = """
+                {"title":"Notice","body":"Body","sender":"ops","receivers":["user1","user2","user3"],"messageId":46,"isImportant":false}
+                """;
+        when(multicastSender.maxReceivers()).thenReturn(2);
+
+        // When & Then
+        mockMvc.perform(post("/api/messages/multicast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status")
+                        .value("receivers must list 1 to the configured maximum of non-null receivers"));
+        verify(multicastSender, never()).send(any(com.badrri.playground.avro.v2.TextMessage.class), any());
+    }
+
+    @Test
+    void shouldRejectMulticastWithoutSender() throws Exception {
+        // Given
+        String json = """
+                {"title":"Notice","body":"Body","receivers":["user1","user2"],"messageId":49,"isImportant":false}
+                """;
+        when(multicastSender.maxReceivers()).thenReturn(100);
+
+        // When & Then
+        mockMvc.perform(post("/api/messages/multicast")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("sender is required"));
+        verify(multicastSender, never()).send(any(com.badrri.playground.avro.v2.TextMessage.class), any());
+    }
+
     @Test
     void shouldHandleInvalidJsonFormat() throws Exception {
         // Given
@@ -0,0 +1,200 @@
+package com.badrri.playground.delivery;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedDeliverySchedulerTest {
+
+    private static final String TOPIC = "text_message.scheduled";
+    private static final long START_MS = 1_000_000;
+
+    @Mock
+    private MessageProducerService messageProducerService;
+
+    private final AtomicLong now = new AtomicLong(START_MS);
+    private MockProducer<String, byte[]> mockProducer;
+
+    @BeforeEach
+    void setUp() {
+        mockProducer = new MockProducer<>(true, null, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Test
+    void shouldPersistThenReleaseOnlyOnceDue() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        DelayedDeliveryScheduler scheduler = scheduler(10, Map.of());
+        scheduler.schedule(message(1001L), START_MS + 5_000).join();
+
+        // When
+        int releasedEarly = scheduler.release(START_MS + 4_999);
+        int releasedOnTime = scheduler.release(START_MS + 5_000);
+
+        // Then
+        assertThat(releasedEarly).isZero();
+        assertThat(releasedOnTime).isEqualTo(1);
+        verify(messageProducerService).sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class));
+        assertThat(mockProducer.history()).extracting(ProducerRecord::value)
+                .satisfiesExactly(
+                        value -> assertThat(value).isNotNull(),
+                        value -> assertThat(value).isNull());
+        assertThat(scheduler.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldRetryWhenSendThrowsTransientError() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenThrow(new TimeoutException("Topic text_message not present in metadata after 60000 ms."))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        DelayedDeliveryScheduler scheduler = scheduler(10, Map.of());
+        scheduler.schedule(message(1001L), START_MS + 1_000).join();
+        now.set(START_MS + 1_000);
+
+        // When
+        int released = scheduler.release(START_MS + 1_000);
+        int pendingAfterFailure = scheduler.pendingCount();
+        int retried = scheduler.release(START_MS + 6_000);
+
+        // Then
+        assertThat(released).isEqualTo(1);
+        assertThat(pendingAfterFailure).isEqualTo(1);
+        assertThat(retried).isEqualTo(1);
+        assertThat(scheduler.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldDropMessagesTheWireFormatCannotCarry() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenThrow(new IllegalArgumentException("messageId does not fit the v1 wire format"));
+        DelayedDeliveryScheduler scheduler = scheduler(10, Map.of());
+        scheduler.schedule(message(1L << 40), START_MS + 1_000).join();
+
+        // When
+        scheduler.release(START_MS + 1_000);
+
+        // Then
+        assertThat(scheduler.pendingCount()).isZero();
+        assertThat(mockProducer.history()).extracting(ProducerRecord::value)
+                .satisfiesExactly(
+                        value -> assertThat(value).isNotNull(),
+                        value -> assertThat(value).isNull());
+    }
+
+    @Test
+    void shouldRestorePendingMessagesFromScheduleTopic() {
+        // Given
+        scheduler(10, Map.of()).schedule(message(1001L), START_MS + 2_000).join();
+        Map<Long, byte[]> existing = new HashMap<>();
+        existing.put(Long.parseLong(mockProducer.history().get(0).key()), mockProducer.history().get(0).value());
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        DelayedDeliveryScheduler restored = scheduler(10, existing);
+        int released = restored.release(START_MS + 2_000);
+
+        // Then
+        assertThat(restored.pendingCount()).isZero();
+        assertThat(released).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseDueMessagesInBatches() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        DelayedDeliveryScheduler scheduler = scheduler(2, Map.of());
+        for (int i = 0; i < 5; i++) {
+            scheduler.schedule(message(1001L + i), START_MS + 1_000).join();
+        }
+
+        // When
+        int first = scheduler.release(START_MS + 1_000);
+        int second = scheduler.release(START_MS + 1_100);
+        int third = scheduler.release(START_MS + 1_200);
+
+        // Then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(2);
+        assertThat(third).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryFailedPublishAfterDelay() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        DelayedDeliveryScheduler scheduler = scheduler(10, Map.of());
+        scheduler.schedule(message(1001L), START_MS + 1_000).join();
+        now.set(START_MS + 1_000);
+        scheduler.release(START_MS + 1_000);
+
+        // When
+        int beforeRetryDelay = scheduler.release(START_MS + 1_500);
+        int afterRetryDelay = scheduler.release(START_MS + 6_000);
+
+        // Then
+        assertThat(beforeRetryDelay).isZero();
+        assertThat(afterRetryDelay).isEqualTo(1);
+        verify(messageProducerService, times(2)).sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class));
+        assertThat(scheduler.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectWhenFullOrTooFarAhead() {
+        // Given
+        DelayedDeliveryScheduler scheduler = new DelayedDeliveryScheduler(template(), messageProducerService, TOPIC,
+                100, 60_000, 1, 10, 5_000, Map.of(), now::get, false);
+        scheduler.schedule(message(1001L), START_MS + 1_000).join();
+
+        // When & Then
+        assertThatThrownBy(() -> scheduler.schedule(message(1002L), START_MS + 1_000))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> scheduler.schedule(message(1003L), START_MS + 120_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DelayedDeliveryScheduler scheduler(int releaseBatchSize, Map<Long, byte[]> existing) {
+        return new DelayedDeliveryScheduler(template(), messageProducerService, TOPIC,
+                100, 86_400_000, 1_000, releaseBatchSize, 5_000, existing, now::get, false);
+    }
+
+    private KafkaTemplate<String, byte[]> template() {
+        return new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer));
+    }
+
+    private static com.badrri.playground.avro.v2.TextMessage message(long messageId) {
+        return TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Later", "Body", "user123", "user456", messageId, false));
+    }
+}
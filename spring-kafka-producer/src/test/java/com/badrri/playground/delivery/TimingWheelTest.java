@@ -0,0 +1,115 @@
+package com.badrri.playground.delivery;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 10;
+
+    // 16 slots per level, three levels: spans of 16, 256 and 4096 ticks
+    private final TimingWheel wheel = new TimingWheel(TICK_MS, 4, 3, 0);
+
+    @Test
+    void shouldReleaseEntryOnItsTick() {
+        // Given
+        wheel.add(entry(1, 5 * TICK_MS));
+
+        // When
+        List<Long> early = ids(wheel.advance(5 * TICK_MS - 1));
+        List<Long> onTime = ids(wheel.advance(5 * TICK_MS));
+
+        // Then
+        assertThat(early).isEmpty();
+        assertThat(onTime).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldCascadeEntriesFromHigherLevels() {
+        // Given
+        wheel.add(entry(1, 1000 * TICK_MS));
+        wheel.add(entry(2, 300 * TICK_MS));
+
+        // When
+        List<Long> beforeFirst = ids(wheel.advance(300 * TICK_MS - 1));
+        List<Long> first = ids(wheel.advance(999 * TICK_MS));
+        List<Long> second = ids(wheel.advance(1000 * TICK_MS));
+
+        // Then
+        assertThat(beforeFirst).isEmpty();
+        assertThat(first).containsExactly(2L);
+        assertThat(second).containsExactly(1L);
+    }
+
+    @Test
+    void shouldReplaceEntriesBeyondTopLevelSpanUntilDue() {
+        // Given
+        wheel.add(entry(1, 10_000 * TICK_MS));
+
+        // When
+        List<Long> beforeDue = ids(wheel.advance(9_999 * TICK_MS));
+        int pendingBeforeDue = wheel.size();
+        List<Long> due = ids(wheel.advance(10_000 * TICK_MS));
+
+        // Then
+        assertThat(beforeDue).isEmpty();
+        assertThat(pendingBeforeDue).isEqualTo(1);
+        assertThat(due).containsExactly(1L);
+    }
+
+    @Test
+    void shouldRefuseEntriesThatAreAlreadyDue() {
+        // Given
+        wheel.advance(50 * TICK_MS);
+
+        // When
+        boolean added = wheel.add(entry(1, 40 * TICK_MS));
+
+        // Then
+        assertThat(added).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldReleaseEveryEntryExactlyOnce() {
+        // Given
+        for (int i = 0; i < 5_000; i++) {
+            wheel.add(entry(i, (1 + (i * 7919L) % 20_000) * TICK_MS));
+        }
+
+        // When
+        List<Long> released = new ArrayList<>();
+        long releasedEarly = 0;
+        for (long now = 0; now <= 20_001 * TICK_MS; now += 37 * TICK_MS) {
+            for (TimingWheel.Entry entry = wheel.advance(now); entry != null; entry = entry.next) {
+                released.add(entry.id);
+                if (entry.deliverAtMs > now) {
+                    releasedEarly++;
+                }
+            }
+        }
+        released.addAll(ids(wheel.advance(20_001 * TICK_MS)));
+
+        // Then
+        assertThat(releasedEarly).isZero();
+        assertThat(released).hasSize(5_000).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    private static TimingWheel.Entry entry(long id, long deliverAtMs) {
+        return new TimingWheel.Entry(id, deliverAtMs, new byte[0]);
+    }
+
+    private static List<Long> ids(TimingWheel.Entry chain) {
+        List<Long> ids = new ArrayList<>();
+        for (TimingWheel.Entry entry = chain; entry != null; entry = entry.next) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+}
@@ -63,7 +63,7 @@ class KafkaProducerE2ETest {
     void shouldSendMessageEndToEnd() throws Exception {
         // Given
         var message = TestDataFactory.createRestDto(
-                "E2E Test", "End-to-end validation", "client", "server", 5005, true
+                "E2E Test", "End-to-end validation", "client", "server", 5005L, true
         );
 
         BlockingQueue<ConsumerRecord<String, com.badrri.playground.avro.TextMessage>> records =
@@ -164,7 +164,7 @@ class KafkaProducerE2ETest {
                 message.getBody().toString(),
                 message.getSender().toString(),
                 message.getReceiver().toString(),
-                message.getMessageId(),
+                (long) message.getMessageId(),
                 message.getIsImportant()
         );
 
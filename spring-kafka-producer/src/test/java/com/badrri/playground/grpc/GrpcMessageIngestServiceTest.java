@@ -0,0 +1,190 @@
+package com.badrri.playground.grpc;
+
+import com.badrri.playground.grpc.proto.MessageIngestGrpc;
+import com.badrri.playground.grpc.proto.PublishAck;
+import com.badrri.playground.grpc.proto.PublishRequest;
+import com.badrri.playground.grpc.proto.TextMessage;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GrpcMessageIngestServiceTest {
+
+    @Mock
+    private MessageProducerService messageProducerService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new GrpcMessageIngestService(messageProducerService, null, 4))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void shouldAckEveryMessageOnceKafkaSettles() throws Exception {
+        // Given
+        when(messageProducerService.sendMessage(any())).thenReturn(CompletableFuture.completedFuture(null));
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+
+        // When
+        StreamObserver<PublishRequest> requests = MessageIngestGrpc.newStub(channel).publish(observer(ack));
+        for (int i = 0; i < 20; i++) {
+            requests.onNext(PublishRequest.newBuilder().setMessage(protoMessage(i)).build());
+        }
+        requests.onCompleted();
+
+        // Then
+        PublishAck result = ack.get(5, TimeUnit.SECONDS);
+        assertThat(result.getAccepted()).isEqualTo(20);
+        assertThat(result.getFailed()).isZero();
+        verify(messageProducerService, times(20)).sendMessage(any());
+    }
+
+    @Test
+    void shouldReportFailedSendsInAck() throws Exception {
+        // Given
+        when(messageProducerService.sendMessage(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+
+        // When
+        StreamObserver<PublishRequest> requests = MessageIngestGrpc.newStub(channel).publish(observer(ack));
+        requests.onNext(PublishRequest.newBuilder().setMessage(protoMessage(1)).build());
+        requests.onNext(PublishRequest.newBuilder().setMessage(protoMessage(2)).build());
+        requests.onCompleted();
+
+        // Then
+        PublishAck result = ack.get(5, TimeUnit.SECONDS);
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailures(0).getSequence()).isEqualTo(1);
+        assertThat(result.getFailures(0).getMessageId()).isEqualTo(2);
+        assertThat(result.getFailures(0).getError()).contains("broker unavailable");
+    }
+
+    @Test
+    void shouldAcceptRawAvroPayloads() throws Exception {
+        // Given
+        when(messageProducerService.sendMessage(any())).thenReturn(CompletableFuture.completedFuture(null));
+        var avroMessage = TestDataFactory.createSampleAvroMessage();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<>(com.badrri.playground.avro.TextMessage.class).write(avroMessage, encoder);
+        encoder.flush();
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+
+        // When
+        StreamObserver<PublishRequest> requests = MessageIngestGrpc.newStub(channel).publish(observer(ack));
+        requests.onNext(PublishRequest.newBuilder().setAvro(ByteString.copyFrom(out.toByteArray())).build());
+        requests.onCompleted();
+
+        // Then
+        assertThat(ack.get(5, TimeUnit.SECONDS).getAccepted()).isEqualTo(1);
+        verify(messageProducerService).sendMessage(argThat(message -> message.equals(avroMessage)));
+    }
+
+    @Test
+    void shouldFailUndecodablePayloadWithoutSending() throws Exception {
+        // Given
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+
+        // When
+        StreamObserver<PublishRequest> requests = MessageIngestGrpc.newStub(channel).publish(observer(ack));
+        requests.onNext(PublishRequest.newBuilder().setAvro(ByteString.copyFromUtf8("not avro")).build());
+        requests.onCompleted();
+
+        // Then
+        PublishAck result = ack.get(5, TimeUnit.SECONDS);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailures(0).getError()).startsWith("Invalid payload");
+        verify(messageProducerService, times(0)).sendMessage(any());
+    }
+
+    @Test
+    void shouldFailRequestWithoutPayloadWithoutSending() throws Exception {
+        // Given
+        CompletableFuture<PublishAck> ack = new CompletableFuture<>();
+
+        // When
+        StreamObserver<PublishRequest> requests = MessageIngestGrpc.newStub(channel).publish(observer(ack));
+        requests.onNext(PublishRequest.getDefaultInstance());
+        requests.onCompleted();
+
+        // Then
+        PublishAck result = ack.get(5, TimeUnit.SECONDS);
+        assertThat(result.getAccepted()).isZero();
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailures(0).getMessageId()).isZero();
+        assertThat(result.getFailures(0).getError()).startsWith("Invalid payload");
+        verify(messageProducerService, times(0)).sendMessage(any());
+    }
+
+    private static TextMessage protoMessage(int messageId) {
+        return TextMessage.newBuilder()
+                .setTitle("Title")
+                .setBody("Body")
+                .setSender("sender")
+                .setReceiver("receiver")
+                .setMessageId(messageId)
+                .setIsImportant(false)
+                .build();
+    }
+
+    private static StreamObserver<PublishAck> observer(CompletableFuture<PublishAck> ack) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(PublishAck value) {
+                ack.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                ack.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.badrri.playground.health;
+
+import com.badrri.playground.cluster.ClusterHealth;
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.service.ProducerWarmup;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaProducerHealthIndicatorTest {
+
+    @Mock
+    private KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+
+    @Mock
+    private ObjectProvider<ProducerWarmup> warmupProvider;
+
+    @Mock
+    private ProducerWarmup warmup;
+
+    @Mock
+    private ObjectProvider<MultiClusterSender> clustersProvider;
+
+    @Mock
+    private MultiClusterSender multiClusterSender;
+
+    @Test
+    void shouldBeOutOfServiceWhileWarmingUp() {
+        // Given
+        when(warmupProvider.getIfAvailable()).thenReturn(warmup);
+        when(warmup.isComplete()).thenReturn(false);
+
+        // When
+        var health = indicator().health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void shouldBeUpOnceWarmAndSending() {
+        // Given
+        when(warmupProvider.getIfAvailable()).thenReturn(warmup);
+        when(warmup.isComplete()).thenReturn(true);
+        doReturn(Map.of(
+                name("record-send-rate"), metric(100.0),
+                name("record-error-rate"), metric(0.0)
+        )).when(kafkaTemplate).metrics();
+
+        // When
+        var health = indicator().health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("recordSendRate", 100.0);
+    }
+
+    @Test
+    void shouldBeDownWhenMostRecordsFail() {
+        // Given
+        when(warmupProvider.getIfAvailable()).thenReturn(null);
+        doReturn(Map.of(
+                name("record-send-rate"), metric(1.0),
+                name("record-error-rate"), metric(40.0)
+        )).when(kafkaTemplate).metrics();
+
+        // When
+        var health = indicator().health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldFollowNamedClusterHealthWhenMultiClusterIsEnabled() {
+        // Given
+        KafkaCluster east = cluster("east");
+        KafkaCluster west = cluster("west");
+        when(warmupProvider.getIfAvailable()).thenReturn(null);
+        when(clustersProvider.getIfAvailable()).thenReturn(multiClusterSender);
+        when(multiClusterSender.clusters()).thenReturn(List.of(east, west));
+        east.health().markDown();
+
+        // When
+        var oneUp = indicator().health();
+        west.health().markDown();
+        var allDown = indicator().health();
+
+        // Then
+        assertThat(oneUp.getStatus()).isEqualTo(Status.UP);
+        assertThat(allDown.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(allDown.getDetails()).containsKey("clusters");
+    }
+
+    private KafkaProducerHealthIndicator indicator() {
+        return new KafkaProducerHealthIndicator(kafkaTemplate, warmupProvider, clustersProvider);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaCluster cluster(String name) {
+        return new KafkaCluster(name, mock(KafkaTemplate.class), null, 1.0, new ClusterHealth(0.2, 50, 0.5));
+    }
+
+    private static MetricName name(String name) {
+        return new MetricName(name, "producer-metrics", "", Map.of());
+    }
+
+    private static Metric metric(double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+}
@@ -63,7 +63,7 @@ class MessageControllerIntegrationTest {
     void shouldPublishMessageViaRestEndpoint() throws Exception {
         // Given
         var message = TestDataFactory.createRestDto(
-            "Integration Test", "Full stack test", "api", "kafka", 3003, true
+            "Integration Test", "Full stack test", "api", "kafka", 3003L, true
         );
         String jsonContent = objectMapper.writeValueAsString(message);
 
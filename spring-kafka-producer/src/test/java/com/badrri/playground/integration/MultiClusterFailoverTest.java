@@ -0,0 +1,123 @@
+package com.badrri.playground.integration;
+
+import com.badrri.playground.cluster.ClusterHealth;
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.testutil.TestDataFactory;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two single-broker clusters; the primary is stopped part-way through a load run.
+ */
+@Tag("chaos")
+class MultiClusterFailoverTest {
+
+    private static final String TOPIC = "text_message";
+    private static final String REGISTRY_URL = "mock://multi-cluster";
+    private static final int MESSAGES = 1500;
+    private static final int KILL_AT = 300;
+    private static final int KEYS = 20;
+
+    private final SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+
+    private EmbeddedKafkaBroker primary;
+    private EmbeddedKafkaBroker secondary;
+    private MultiClusterSender sender;
+
+    @BeforeEach
+    void setUp() {
+        primary = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        secondary = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        primary.afterPropertiesSet();
+        secondary.afterPropertiesSet();
+
+        Serializer<Object> serializer = new KafkaAvroSerializer(schemaRegistry, Map.of("schema.registry.url", REGISTRY_URL));
+        sender = new MultiClusterSender(
+                List.of(connect("primary", primary, serializer), connect("secondary", secondary, serializer)),
+                MultiClusterSender.Mode.FAILOVER,
+                Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+        secondary.destroy();
+    }
+
+    @Test
+    void shouldKeepPublishingInKeyOrderWhenPrimaryClusterDies() throws Exception {
+        // Given
+        List<CompletableFuture<?>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < MESSAGES; i++) {
+            if (i == KILL_AT) {
+                primary.destroy();
+            }
+            com.badrri.playground.avro.TextMessage message =
+                    TestDataFactory.createAvroMessage("Title", "Body " + i, "sender", "receiver", i, false);
+            results.add(sender.send(TOPIC, "key-" + (i % KEYS), message));
+            Thread.sleep(5);
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(sender.clusters().get(0).health().isAvailable()).isFalse();
+
+        Map<String, Integer> lastIdByKey = new HashMap<>();
+        try (Consumer<String, Object> consumer = secondaryConsumer()) {
+            consumer.subscribe(List.of(TOPIC));
+            for (ConsumerRecord<String, Object> record :
+                    KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), MESSAGES - KILL_AT)) {
+                int messageId = ((com.badrri.playground.avro.TextMessage) record.value()).getMessageId();
+                Integer previous = lastIdByKey.put(record.key(), messageId);
+                assertThat(previous == null || previous < messageId)
+                        .as("order of key %s: %s then %s", record.key(), previous, messageId)
+                        .isTrue();
+            }
+        }
+        assertThat(lastIdByKey).hasSize(KEYS);
+    }
+
+    private static KafkaCluster connect(String name, EmbeddedKafkaBroker broker, Serializer<Object> serializer) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 1000);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 3000);
+        return KafkaCluster.connect(name, configProps, serializer, 1.0, new ClusterHealth(0.2, 50, 0.5));
+    }
+
+    private Consumer<String, Object> secondaryConsumer() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("multi-cluster-test", "false", secondary);
+        KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer(schemaRegistry,
+                Map.of("schema.registry.url", REGISTRY_URL, "specific.avro.reader", true));
+        return new KafkaConsumer<>(props, new StringDeserializer(), deserializer);
+    }
+}
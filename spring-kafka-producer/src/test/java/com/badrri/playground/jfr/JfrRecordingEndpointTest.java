@@ -0,0 +1,110 @@
+package com.badrri.playground.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(false, 0, 1);
+    private Long recordingId;
+
+    @AfterEach
+    void tearDown() {
+        if (recordingId != null) {
+            endpoint.close(recordingId);
+        }
+    }
+
+    @Test
+    void shouldRecordPlaygroundEventsAndDumpThem(@TempDir Path tempDir) throws Exception {
+        // Given
+        recordingId = endpoint.start("test", "default", null).getBody().id();
+
+        // When
+        MessageMappingEvent.start().finish(42L);
+        KafkaSendEnqueueEvent.start().finish("text_message");
+        endpoint.stop(recordingId);
+        WebEndpointResponse<Resource> dump = endpoint.dump(recordingId);
+
+        // Then
+        assertThat(dump.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path file = tempDir.resolve("dump.jfr");
+        try (InputStream data = dump.getBody().getInputStream()) {
+            Files.copy(data, file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.badrri.playground."))
+                .toList();
+        assertThat(events)
+                .anySatisfy(event -> {
+                    assertThat(event.getEventType().getName()).isEqualTo("com.badrri.playground.MessageMapping");
+                    assertThat(event.getLong("messageId")).isEqualTo(42L);
+                })
+                .anySatisfy(event -> {
+                    assertThat(event.getEventType().getName()).isEqualTo("com.badrri.playground.KafkaSendEnqueue");
+                    assertThat(event.getString("topic")).isEqualTo("text_message");
+                });
+    }
+
+    @Test
+    void shouldListAndStopRecordings() {
+        // Given
+        recordingId = endpoint.start("listed", null, 60L).getBody().id();
+
+        // When
+        WebEndpointResponse<JfrRecordingEndpoint.RecordingDescription> stopped = endpoint.stop(recordingId);
+
+        // Then
+        assertThat(endpoint.recordings())
+                .anySatisfy(recording -> assertThat(recording.name()).isEqualTo("listed"));
+        assertThat(stopped.getBody().state()).isEqualTo("STOPPED");
+    }
+
+    @Test
+    void shouldRejectStartsBeyondTheLimitUntilOneIsClosed() {
+        // Given
+        long first = endpoint.start("first", null, null).getBody().id();
+
+        // When
+        WebEndpointResponse<JfrRecordingEndpoint.RecordingDescription> rejected = endpoint.start("second", null, null);
+        endpoint.close(first);
+        recordingId = endpoint.start("third", null, null).getBody().id();
+
+        // Then
+        assertThat(rejected.getStatus()).isEqualTo(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        assertThat(endpoint.recordings()).noneSatisfy(recording -> assertThat(recording.name()).isEqualTo("second"));
+    }
+
+    @Test
+    void shouldCloseItsRecordingsOnShutdown() {
+        // Given
+        JfrRecordingEndpoint continuous = new JfrRecordingEndpoint(true, 60, 1);
+        continuous.start("on-demand", null, null);
+
+        // When
+        continuous.closeAll();
+
+        // Then
+        assertThat(continuous.recordings()).noneSatisfy(recording ->
+                assertThat(recording.name()).isIn("continuous", "on-demand"));
+    }
+
+    @Test
+    void shouldReportUnknownRecordingsAsNotFound() throws Exception {
+        assertThat(endpoint.stop(-1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.dump(-1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.close(-1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,90 @@
+package com.badrri.playground.model;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextMessageDeserializerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Test
+    void shouldBindAllFields() throws Exception {
+        // Given
+        String json = """
+                {"title":"Test","body":"Body","sender":"user 1","receiver":"user 2","messageId":35,"isImportant":true}
+                """;
+
+        // When
+        TextMessage message = objectMapper.readValue(json, TextMessage.class);
+
+        // Then
+        assertThat(message).isEqualTo(new TextMessage("Test", "Body", "user 1", "user 2", 35L, true));
+    }
+
+    @Test
+    void shouldSkipUnknownFieldsAndKeepMissingOnesNull() throws Exception {
+        // Given
+        String json = """
+                {"title":"Test","extra":{"nested":[1,2,3]},"messageId":null,"sender":"user 1"}
+                """;
+
+        // When
+        TextMessage message = objectMapper.readValue(json, TextMessage.class);
+
+        // Then
+        assertThat(message).isEqualTo(new TextMessage("Test", null, "user 1", null, null, null));
+    }
+
+    @Test
+    void shouldBindDeliverAtFromIsoStringOrEpochMillis() throws Exception {
+        // Given
+        String iso = """
+                {"title":"Test","messageId":1,"deliverAt":"2030-01-01T09:00:00Z"}
+                """;
+        String epochMillis = """
+                {"title":"Test","messageId":1,"deliverAt":1893488400000}
+                """;
+
+        // When
+        TextMessage fromIso = objectMapper.readValue(iso, TextMessage.class);
+        TextMessage fromEpochMillis = objectMapper.readValue(epochMillis, TextMessage.class);
+
+        // Then
+        assertThat(fromIso.deliverAt()).isEqualTo(Instant.parse("2030-01-01T09:00:00Z"));
+        assertThat(fromEpochMillis.deliverAt()).isEqualTo(fromIso.deliverAt());
+    }
+
+    @Test
+    void shouldRejectMalformedDeliverAt() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"deliverAt\":\"tomorrow\"}", TextMessage.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void shouldRoundTripWithDefaultSerialization() throws Exception {
+        // Given
+        TextMessage original = new TextMessage("Title", "Body", "a", "b", 7L, false);
+
+        // When
+        TextMessage copy = objectMapper.readValue(objectMapper.writeValueAsString(original), TextMessage.class);
+
+        // Then
+        assertThat(copy).isEqualTo(original);
+    }
+
+    @Test
+    void shouldRejectNonObjectPayload() {
+        assertThatThrownBy(() -> objectMapper.readValue("[1,2]", TextMessage.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+}
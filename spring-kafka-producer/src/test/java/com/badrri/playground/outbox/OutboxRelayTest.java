@@ -0,0 +1,163 @@
+package com.badrri.playground.outbox;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.service.MessageProducerService;
+import com.badrri.playground.testutil.TestDataFactory;
+import org.apache.avro.AvroRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private MessageProducerService messageProducerService;
+
+    private OutboxStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OutboxStore(directory, 64, 1024, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.close();
+    }
+
+    @Test
+    void shouldPublishInCommitOrderAndDeleteOnceAcked() {
+        // Given
+        CompletableFuture<Void> firstAck = new CompletableFuture<>();
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(firstAck)
+                .thenReturn(CompletableFuture.completedFuture(null));
+        store.commit(message(1));
+        store.commit(message(2));
+        OutboxRelay relay = relay();
+
+        // When
+        relay.relayOnce();
+        relay.relayOnce();
+        int storedBeforeAck = store.read(0, 10).size();
+        firstAck.complete(null);
+        relay.relayOnce();
+
+        // Then
+        ArgumentCaptor<com.badrri.playground.avro.v2.TextMessage> sent =
+                ArgumentCaptor.forClass(com.badrri.playground.avro.v2.TextMessage.class);
+        verify(messageProducerService, times(2)).sendMessageV2(sent.capture());
+        assertThat(sent.getAllValues()).extracting(com.badrri.playground.avro.v2.TextMessage::getMessageId)
+                .containsExactly(1L, 2L);
+        assertThat(storedBeforeAck).isEqualTo(2);
+        assertThat(store.read(0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldResendEverythingFromOldestFailureAfterInFlightSettles() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        store.commit(message(1));
+        store.commit(message(2));
+        OutboxRelay relay = relay();
+        relay.relayOnce();
+
+        // When
+        relay.relayOnce();
+        relay.relayOnce();
+
+        // Then
+        ArgumentCaptor<com.badrri.playground.avro.v2.TextMessage> sent =
+                ArgumentCaptor.forClass(com.badrri.playground.avro.v2.TextMessage.class);
+        verify(messageProducerService, times(4)).sendMessageV2(sent.capture());
+        assertThat(sent.getAllValues()).extracting(com.badrri.playground.avro.v2.TextMessage::getMessageId)
+                .containsExactly(1L, 2L, 1L, 2L);
+        assertThat(store.read(0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldDropEntriesTheWireFormatCannotCarry() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenThrow(new IllegalArgumentException("messageId does not fit the v1 wire format"));
+        store.commit(message(1L << 40));
+        OutboxRelay relay = relay();
+
+        // When
+        relay.relayOnce();
+        relay.relayOnce();
+
+        // Then
+        verify(messageProducerService).sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class));
+        assertThat(store.read(0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldDropEntriesTheV1SchemaCannotRepresent() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenThrow(new AvroRuntimeException("Field sender type:STRING pos:2 does not accept null values"));
+        store.commit(TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Title", "Body", null, "user456", 1L, false)));
+        OutboxRelay relay = relay();
+
+        // When
+        relay.relayOnce();
+        relay.relayOnce();
+
+        // Then
+        verify(messageProducerService).sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class));
+        assertThat(store.read(0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepStoredProducedAt() {
+        // Given
+        when(messageProducerService.sendMessageV2(any(com.badrri.playground.avro.v2.TextMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        com.badrri.playground.avro.v2.TextMessage message = message(1);
+        message.setProducedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        store.commit(message);
+        OutboxRelay relay = relay();
+
+        // When
+        relay.relayOnce();
+
+        // Then
+        ArgumentCaptor<com.badrri.playground.avro.v2.TextMessage> sent =
+                ArgumentCaptor.forClass(com.badrri.playground.avro.v2.TextMessage.class);
+        verify(messageProducerService).sendMessageV2(sent.capture());
+        assertThat(sent.getValue().getProducedAt()).isEqualTo(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    private OutboxRelay relay() {
+        return new OutboxRelay(store, messageProducerService, 100, 100, 0, false);
+    }
+
+    private static com.badrri.playground.avro.v2.TextMessage message(long messageId) {
+        return TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Title", "Body", "user123", "user456", messageId, false));
+    }
+}
@@ -0,0 +1,128 @@
+package com.badrri.playground.outbox;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.testutil.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReturnEntriesInCommitOrder() throws Exception {
+        // Given
+        try (OutboxStore store = store()) {
+            for (long messageId = 1; messageId <= 3; messageId++) {
+                store.commit(message(messageId));
+            }
+
+            // When
+            List<OutboxStore.Entry> entries = store.read(0, 10);
+
+            // Then
+            assertThat(entries).extracting(OutboxStore.Entry::id).containsExactly(0L, 1L, 2L);
+            assertThat(entries.get(2).message().getMessageId()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    void shouldCommitConcurrentCallersWithoutGaps() throws Exception {
+        // Given
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try (OutboxStore store = store()) {
+            // When
+            List<CompletableFuture<Void>> commits = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                long messageId = i;
+                commits.add(CompletableFuture.runAsync(() -> store.commit(message(messageId)), callers));
+            }
+            CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new)).join();
+
+            // Then
+            assertThat(store.read(0, 1000)).extracting(OutboxStore.Entry::id)
+                    .containsExactlyElementsOf(LongStream.range(0, 800).boxed().toList());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepUndeletedEntriesAcrossRestart() throws Exception {
+        // Given
+        try (OutboxStore store = store()) {
+            store.commit(message(1));
+            store.commit(message(2));
+            store.delete(List.of(0L));
+        }
+
+        // When
+        try (OutboxStore reopened = store()) {
+            reopened.commit(message(3));
+
+            // Then
+            assertThat(reopened.read(0, 10)).extracting(OutboxStore.Entry::id).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    void shouldNotKeepMessagesWhoseCommitTimedOut() throws Exception {
+        // Given
+        List<Long> accepted = new ArrayList<>();
+
+        try (OutboxStore store = new OutboxStore(directory, 64, 1024, Duration.ZERO)) {
+            // When
+            for (long messageId = 0; messageId < 200; messageId++) {
+                try {
+                    store.commit(message(messageId));
+                    accepted.add(messageId);
+                } catch (IllegalStateException ex) {
+                    assertThat(ex).hasMessage("Outbox commit timed out");
+                }
+            }
+
+            // Then
+            assertThat(store.read(0, 1000)).extracting(entry -> entry.message().getMessageId())
+                    .containsExactlyElementsOf(accepted);
+        }
+    }
+
+    @Test
+    void shouldRefuseEntriesFromUnknownPayloadVersionWithoutCallingThemCorrupt() throws Exception {
+        // Given
+        byte[] payload = OutboxStore.encode(message(1));
+        payload[0] = 2;
+        byte[] truncated = Arrays.copyOf(OutboxStore.encode(message(1)), 4);
+
+        // When & Then
+        assertThatThrownBy(() -> new OutboxStore.Entry(0, payload).message())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new OutboxStore.Entry(1, truncated).message())
+                .isInstanceOf(IOException.class);
+    }
+
+    private OutboxStore store() {
+        return new OutboxStore(directory, 64, 1024, Duration.ofSeconds(5));
+    }
+
+    private static com.badrri.playground.avro.v2.TextMessage message(long messageId) {
+        return TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Title", "Body", "user123", "user456", messageId, false));
+    }
+}
@@ -0,0 +1,103 @@
+package com.badrri.playground.routing;
+
+import com.badrri.playground.testutil.TestDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageRouterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldRouteEverythingToDefaultTopicWithoutRulesFile() {
+        MessageRouter router = MessageRouter.singleTopic("text_message");
+
+        assertThat(router.route(TestDataFactory.createSampleAvroMessage())).containsExactly("text_message");
+    }
+
+    @Test
+    void shouldHotReloadChangedRules() throws Exception {
+        // Given
+        Path rulesFile = tempDir.resolve("routing.json");
+        Files.writeString(rulesFile, """
+                {"rules": [{"receiverPrefix": "ops-", "topics": ["ops_messages"]}]}
+                """);
+        MessageRouter router = new MessageRouter(objectMapper, rulesFile.toString(), "text_message");
+        var message = TestDataFactory.createAvroMessage("Title", "Body", "admin", "ops-team", 1, false);
+        assertThat(router.route(message)).containsExactly("ops_messages");
+
+        // When
+        Files.writeString(rulesFile, """
+                {"rules": [{"senders": ["admin"], "topics": ["admin_messages"]}]}
+                """);
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(5)));
+        router.reloadIfChanged();
+
+        // Then
+        assertThat(router.route(message)).containsExactly("admin_messages");
+    }
+
+    @Test
+    void shouldKeepPreviousRulesWhenReloadFails() throws Exception {
+        // Given
+        Path rulesFile = tempDir.resolve("routing.json");
+        Files.writeString(rulesFile, """
+                {"defaultTopics": ["fallback"], "rules": []}
+                """);
+        MessageRouter router = new MessageRouter(objectMapper, rulesFile.toString(), "text_message");
+
+        // When
+        Files.writeString(rulesFile, "{not json");
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(5)));
+        router.reloadIfChanged();
+
+        // Then
+        assertThat(router.route(TestDataFactory.createSampleAvroMessage())).containsExactly("fallback");
+    }
+
+    @Test
+    void shouldKeepPreviousRulesWhenReloadHasUnknownKey() throws Exception {
+        // Given
+        Path rulesFile = tempDir.resolve("routing.json");
+        Files.writeString(rulesFile, """
+                {"rules": [{"senders": ["admin"], "topics": ["admin_messages"]}]}
+                """);
+        MessageRouter router = new MessageRouter(objectMapper, rulesFile.toString(), "text_message");
+        var message = TestDataFactory.createAvroMessage("Title", "Body", "someone", "receiver", 1, false);
+
+        // When
+        Files.writeString(rulesFile, """
+                {"rules": [{"senderPrefx": "adm", "topics": ["admin_messages"]}]}
+                """);
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(5)));
+        router.reloadIfChanged();
+
+        // Then
+        assertThat(router.route(message)).containsExactly("text_message");
+    }
+
+    @Test
+    void shouldFailStartupOnUnknownRuleKey() throws Exception {
+        // Given
+        Path rulesFile = tempDir.resolve("routing.json");
+        Files.writeString(rulesFile, """
+                {"rules": [{"senderPrefx": "adm", "topics": ["admin_messages"]}]}
+                """);
+
+        // When & Then
+        assertThatThrownBy(() -> new MessageRouter(objectMapper, rulesFile.toString(), "text_message"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.badrri.playground.routing;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.testutil.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingTableTest {
+
+    private final RoutingTable routingTable = RoutingTable.compile(new RoutingRules(
+            List.of("text_message"),
+            List.of(
+                    new RoutingRule("ops", null, "ops-", null, null, null, List.of("ops_messages")),
+                    new RoutingRule("alerts", List.of("admin", "monitor"), null, true, null, null, List.of("alerts")),
+                    new RoutingRule("large", null, null, null, 1000, null, List.of("large_messages")),
+                    new RoutingRule("ops-alerts", List.of("admin"), "ops-", true, null, 50, List.of("alerts", "ops_pager"))
+            )));
+
+    @Test
+    void shouldFallBackToDefaultTopicWhenNoRuleMatches() {
+        var message = TestDataFactory.createAvroMessage("Title", "Body", "user", "someone", 1, false);
+
+        assertThat(routingTable.route(message)).containsExactly("text_message");
+    }
+
+    @Test
+    void shouldMatchReceiverPrefix() {
+        var message = TestDataFactory.createAvroMessage("Title", "Body", "user", "ops-team", 1, false);
+
+        assertThat(routingTable.route(message)).containsExactly("ops_messages");
+    }
+
+    @Test
+    void shouldRequireEveryConditionOfARule() {
+        var notImportant = TestDataFactory.createAvroMessage("Title", "Body", "admin", "someone", 1, false);
+        var important = TestDataFactory.createAvroMessage("Title", "Body", "admin", "someone", 1, true);
+
+        assertThat(routingTable.route(notImportant)).containsExactly("text_message");
+        assertThat(routingTable.route(important)).containsExactly("alerts");
+    }
+
+    @Test
+    void shouldUnionTopicsOfAllMatchingRules() {
+        var message = TestDataFactory.createAvroMessage("Title", "Short", "admin", "ops-team", 1, true);
+
+        assertThat(routingTable.route(message)).containsExactlyInAnyOrder("ops_messages", "alerts", "ops_pager");
+    }
+
+    @Test
+    void shouldApplyBodyLengthBounds() {
+        var large = TestDataFactory.createAvroMessage("Title", "x".repeat(1000), "user", "someone", 1, false);
+        var justBelow = TestDataFactory.createAvroMessage("Title", "x".repeat(999), "user", "someone", 1, false);
+        var longOpsAlert = TestDataFactory.createAvroMessage("Title", "x".repeat(51), "admin", "ops-team", 1, true);
+
+        assertThat(routingTable.route(large)).containsExactly("large_messages");
+        assertThat(routingTable.route(justBelow)).containsExactly("text_message");
+        assertThat(routingTable.route(longOpsAlert)).containsExactlyInAnyOrder("ops_messages", "alerts");
+    }
+
+    @Test
+    void shouldTreatMaxIntBodyLengthAsUnbounded() {
+        var table = RoutingTable.compile(new RoutingRules(List.of("text_message"),
+                List.of(new RoutingRule("any", null, null, null, 10, Integer.MAX_VALUE, List.of("long_messages")))));
+        var message = TestDataFactory.createAvroMessage("Title", "x".repeat(1000), "user", "someone", 1, false);
+
+        assertThat(table.route(message)).containsExactly("long_messages");
+    }
+
+    @Test
+    void shouldRouteV2MessagesWithoutSenderOrReceiver() {
+        var message = TextMessageMapper.toAvroV2(TestDataFactory.createRestDto("Title", "Body", null, null, 1L, true));
+
+        assertThat(routingTable.route(message)).containsExactly("text_message");
+    }
+
+    @Test
+    void shouldExposeEveryConfiguredTopic() {
+        assertThat(routingTable.allTopics()).containsExactlyInAnyOrder(
+                "text_message", "ops_messages", "alerts", "large_messages", "ops_pager");
+    }
+
+    @Test
+    void shouldRejectRulesWithoutTopics() {
+        var rules = new RoutingRules(List.of("text_message"),
+                List.of(new RoutingRule("empty", null, "x", null, null, null, List.of())));
+
+        assertThatThrownBy(() -> RoutingTable.compile(rules)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectMoreRulesThanFitInAMask() {
+        var rules = new RoutingRules(List.of("text_message"), IntStream.rangeClosed(0, RoutingTable.MAX_RULES)
+                .mapToObj(i -> new RoutingRule(null, null, "r" + i, null, null, null, List.of("t" + i)))
+                .toList());
+
+        assertThatThrownBy(() -> RoutingTable.compile(rules)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,190 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.testutil.TestDataFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescingSenderTest {
+
+    private static final String TOPIC = "text_message";
+    private static final int PARTITIONS = 4;
+
+    private MockProducer<String, com.badrri.playground.avro.TextMessage> mockProducer;
+    private CoalescingSender coalescingSender;
+
+    @BeforeEach
+    void setUp() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(i -> new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}))
+                .toList();
+        Cluster cluster = new Cluster("test", List.of(node), partitions, Set.of(), Set.of());
+
+        mockProducer = new MockProducer<>(cluster, true, null, new StringSerializer(), (topic, data) -> new byte[0]);
+        KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate =
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer));
+        coalescingSender = new CoalescingSender(kafkaTemplate, 64);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescingSender.close();
+    }
+
+    @Test
+    void shouldCompleteCallerFuturesOnceSent() throws Exception {
+        // Given
+        List<CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            futures.add(coalescingSender.send(TOPIC, String.valueOf(i), TestDataFactory.createSampleAvroMessage()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(mockProducer.history()).hasSize(200);
+        assertThat(futures).allSatisfy(future -> assertThat(future).isCompleted());
+    }
+
+    @Test
+    void shouldPlaceRecordsOnDefaultPartitionerPartition() throws Exception {
+        // When
+        for (int i = 0; i < 50; i++) {
+            coalescingSender.send(TOPIC, "key-" + i, TestDataFactory.createSampleAvroMessage())
+                    .get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        for (ProducerRecord<String, com.badrri.playground.avro.TextMessage> record : mockProducer.history()) {
+            int expected = Utils.toPositive(Utils.murmur2(record.key().getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+            assertThat(record.partition()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldFailOnlyTheRecordsThatFailWithinAGroup() throws Exception {
+        // Given
+        MockProducer<String, com.badrri.playground.avro.TextMessage> failingProducer = new MockProducer<>(
+                true, new StringSerializer(), (topic, data) -> {
+                    if (data.getMessageId() == 13) {
+                        throw new IllegalStateException("cannot serialize");
+                    }
+                    return new byte[0];
+                });
+        KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate =
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> failingProducer));
+        List<CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>>> futures = new ArrayList<>();
+
+        try (CoalescingSender sender = new CoalescingSender(kafkaTemplate, 64)) {
+            // When
+            for (int i = 10; i < 16; i++) {
+                futures.add(sender.send(TOPIC, "same-key",
+                        TestDataFactory.createAvroMessage("Title", "Body", "a", "b", i, false)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null)
+                    .get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertThat(futures.get(3)).isCompletedExceptionally();
+        assertThat(futures).filteredOn(future -> future != futures.get(3))
+                .allSatisfy(future -> assertThat(future).isCompleted().isNotCompletedExceptionally());
+    }
+
+    @Test
+    void shouldCompleteEachCallerFromItsOwnRecord() throws Exception {
+        // Given
+        MockProducer<String, com.badrri.playground.avro.TextMessage> manualProducer =
+                new MockProducer<>(false, new StringSerializer(), (topic, data) -> new byte[0]);
+        KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate =
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> manualProducer));
+
+        try (CoalescingSender sender = new CoalescingSender(kafkaTemplate, 64)) {
+            CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> first =
+                    sender.send(TOPIC, "same-key", TestDataFactory.createSampleAvroMessage());
+            CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> second =
+                    sender.send(TOPIC, "same-key", TestDataFactory.createSampleAvroMessage());
+            await().atMost(5, TimeUnit.SECONDS).until(() -> manualProducer.history().size() == 2);
+
+            // When
+            manualProducer.completeNext();
+
+            // Then
+            first.get(5, TimeUnit.SECONDS);
+            assertThat(second).isNotDone();
+            manualProducer.completeNext();
+            second.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSendWithinTheCallersObservation() throws Exception {
+        // Given
+        TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+        KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate = mock(KafkaTemplate.class);
+        AtomicReference<Observation> current = new AtomicReference<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            current.set(observationRegistry.getCurrentObservation());
+            return CompletableFuture.completedFuture(null);
+        });
+        Observation request = Observation.start("http.server.requests", observationRegistry);
+
+        try (CoalescingSender sender = new CoalescingSender(kafkaTemplate, observationRegistry, 64)) {
+            // When
+            CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> future;
+            try (Observation.Scope scope = request.openScope()) {
+                future = sender.send(TOPIC, "1", TestDataFactory.createSampleAvroMessage());
+            }
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            request.stop();
+        }
+
+        // Then
+        assertThat(current.get()).isSameAs(request);
+    }
+
+    @Test
+    void shouldRejectSendsAfterClose() throws Exception {
+        // Given
+        coalescingSender.close();
+
+        // When
+        CompletableFuture<SendResult<String, com.badrri.playground.avro.TextMessage>> future =
+                coalescingSender.send(TOPIC, "1", TestDataFactory.createSampleAvroMessage());
+
+        // Then
+        assertThat(future).isCompletedExceptionally();
+    }
+}
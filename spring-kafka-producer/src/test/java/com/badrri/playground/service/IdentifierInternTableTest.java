@@ -0,0 +1,141 @@
+package com.badrri.playground.service;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdentifierInternTableTest {
+
+    private static final String TOPIC = "text_message.interns";
+
+    private final MockProducer<String, String> mockProducer =
+            new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+
+    @Test
+    void shouldReplaceIdentifiersWithStableRefs() {
+        // Given
+        IdentifierInternTable table = table(0, 100, Map.of());
+
+        // When
+        com.badrri.playground.avro.v2.TextMessage first = table.encode(message("alice", "bob")).join();
+        com.badrri.playground.avro.v2.TextMessage second = table.encode(message("bob", "alice")).join();
+
+        // Then
+        assertThat(first.getSender()).isNull();
+        assertThat(first.getReceiver()).isNull();
+        assertThat(second.getSenderRef()).isEqualTo(first.getReceiverRef());
+        assertThat(second.getReceiverRef()).isEqualTo(first.getSenderRef());
+        assertThat(mockProducer.history())
+                .extracting(record -> record.topic() + ":" + record.key() + "=" + record.value())
+                .containsExactly(TOPIC + ":0=alice", TOPIC + ":1=bob");
+    }
+
+    @Test
+    void shouldHoldBackMessageUntilMappingIsPublished() {
+        // Given
+        MockProducer<String, String> manualProducer =
+                new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        IdentifierInternTable table = new IdentifierInternTable(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> manualProducer)), TOPIC, 0, 100, Map.of());
+
+        // When
+        CompletableFuture<com.badrri.playground.avro.v2.TextMessage> encoded = table.encode(message("alice", null));
+
+        // Then
+        assertThat(encoded).isNotDone();
+        manualProducer.completeNext();
+        assertThat(encoded.join().getSenderRef()).isZero();
+    }
+
+    @Test
+    void shouldReuseLoadedMappingsAndContinueOwnSequence() {
+        // Given
+        int otherInstanceId = 1 << IdentifierInternTable.SEQUENCE_BITS;
+        IdentifierInternTable table = table(0, 100, Map.of(0, "alice", 4, "bob", otherInstanceId, "carol"));
+
+        // When
+        com.badrri.playground.avro.v2.TextMessage known = table.encode(message("carol", "bob")).join();
+        com.badrri.playground.avro.v2.TextMessage fresh = table.encode(message("dave", null)).join();
+
+        // Then
+        assertThat(known.getSenderRef()).isEqualTo(otherInstanceId);
+        assertThat(known.getReceiverRef()).isEqualTo(4);
+        assertThat(fresh.getSenderRef()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldPrefixIdsWithInstanceId() {
+        // Given
+        IdentifierInternTable table = table(3, 100, Map.of());
+
+        // When
+        com.badrri.playground.avro.v2.TextMessage encoded = table.encode(message("alice", null)).join();
+
+        // Then
+        assertThat(encoded.getSenderRef() >>> IdentifierInternTable.SEQUENCE_BITS).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepIdentifiersInlineOnceFull() {
+        // Given
+        IdentifierInternTable table = table(0, 1, Map.of());
+
+        // When
+        com.badrri.playground.avro.v2.TextMessage encoded = table.encode(message("alice", "bob")).join();
+
+        // Then
+        assertThat(encoded.getSenderRef()).isZero();
+        assertThat(encoded.getReceiver()).isEqualTo("bob");
+        assertThat(encoded.getReceiverRef()).isNull();
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetMappingWhenPublishFails() {
+        // Given
+        MockProducer<String, String> manualProducer =
+                new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        IdentifierInternTable table = new IdentifierInternTable(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> manualProducer)), TOPIC, 0, 100, Map.of());
+        CompletableFuture<com.badrri.playground.avro.v2.TextMessage> encoded = table.encode(message("alice", null));
+
+        // When
+        manualProducer.errorNext(new IllegalStateException("broker unavailable"));
+
+        // Then
+        assertThat(encoded).isCompletedExceptionally();
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void shouldRejectOutOfRangeInstanceId() {
+        assertThatThrownBy(() -> table(IdentifierInternTable.MAX_INSTANCE_ID + 1, 100, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IdentifierInternTable table(int instanceId, int maxEntries, Map<Integer, String> existing) {
+        return new IdentifierInternTable(new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer)),
+                TOPIC, instanceId, maxEntries, existing);
+    }
+
+    private static com.badrri.playground.avro.v2.TextMessage message(String sender, String receiver) {
+        return com.badrri.playground.avro.v2.TextMessage.newBuilder()
+                .setTitle("Title")
+                .setBody("Body")
+                .setSender(sender)
+                .setReceiver(receiver)
+                .setMessageId(1L)
+                .setIsImportant(false)
+                .setProducedAt(Instant.EPOCH)
+                .build();
+    }
+}
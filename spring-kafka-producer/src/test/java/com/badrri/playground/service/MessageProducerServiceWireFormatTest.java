@@ -0,0 +1,143 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.routing.MessageRouter;
+import com.badrri.playground.testutil.TestDataFactory;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageProducerServiceWireFormatTest {
+
+    private static final String TOPIC = "text_message";
+
+    private final MockProducer<String, com.badrri.playground.avro.TextMessage> v1Producer =
+            new MockProducer<>(true, new StringSerializer(), (topic, data) -> new byte[0]);
+    private final MockProducer<String, com.badrri.playground.avro.v2.TextMessage> v2Producer =
+            new MockProducer<>(true, new StringSerializer(), (topic, data) -> new byte[0]);
+    private final MockProducer<String, String> internProducer =
+            new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+
+    @Test
+    void shouldWriteV2RecordsInV2Mode() {
+        // Given
+        MessageProducerService service = service("v2", null);
+
+        // When
+        service.sendMessage(TestDataFactory.createSampleAvroMessage()).join();
+
+        // Then
+        assertThat(v1Producer.history()).isEmpty();
+        assertThat(v2Producer.history()).singleElement().satisfies(record -> {
+            assertThat(record.topic()).isEqualTo(TOPIC);
+            assertThat(record.key()).isEqualTo("1001");
+            assertThat(record.value().getMessageId()).isEqualTo(1001L);
+            assertThat(record.value().getSender()).isEqualTo("sender123");
+            assertThat(record.value().getProducedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void shouldShadowV2RecordsInDualMode() {
+        // Given
+        MessageProducerService service = service("dual", null);
+
+        // When
+        service.sendMessage(TestDataFactory.createSampleAvroMessage()).join();
+
+        // Then
+        assertThat(v1Producer.history()).extracting(ProducerRecord::topic).containsExactly(TOPIC);
+        assertThat(v2Producer.history()).extracting(ProducerRecord::topic).containsExactly(TOPIC + ".v2");
+    }
+
+    @Test
+    void shouldCarryLongIdsInV2Mode() {
+        // Given
+        MessageProducerService service = service("v2", null);
+        var message = TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Title", "Body", "a", "b", 1L << 40, false));
+
+        // When
+        service.sendMessageV2(message).join();
+
+        // Then
+        assertThat(v2Producer.history()).singleElement()
+                .satisfies(record -> assertThat(record.key()).isEqualTo(Long.toString(1L << 40)));
+    }
+
+    @Test
+    void shouldRejectLongIdsWhenV1IsOnTheWire() {
+        // Given
+        MessageProducerService service = service("dual", null);
+        var message = TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Title", "Body", "a", "b", 1L << 40, false));
+
+        // When / Then
+        assertThatThrownBy(() -> service.sendMessageV2(message)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(v1Producer.history()).isEmpty();
+        assertThat(v2Producer.history()).isEmpty();
+    }
+
+    @Test
+    void shouldDictionaryEncodeIdentifiersWhenInternTableIsPresent() {
+        // Given
+        IdentifierInternTable internTable = new IdentifierInternTable(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> internProducer)),
+                "text_message.interns", 0, 100, Map.of());
+        MessageProducerService service = service("v2", internTable);
+
+        // When
+        service.sendMessage(TestDataFactory.createSampleAvroMessage()).join();
+
+        // Then
+        assertThat(internProducer.history()).extracting(ProducerRecord::value)
+                .containsExactly("sender123", "receiver456");
+        assertThat(v2Producer.history()).singleElement().satisfies(record -> {
+            assertThat(record.value().getSender()).isNull();
+            assertThat(record.value().getSenderRef()).isZero();
+            assertThat(record.value().getReceiverRef()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void shouldSendV2RecordsThroughTheCoalescingSender() throws InterruptedException {
+        // Given
+        KafkaTemplate<String, com.badrri.playground.avro.v2.TextMessage> v2Template =
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> v2Producer));
+        try (CoalescingSender coalescingSender = new CoalescingSender(v2Template, 64)) {
+            MessageProducerService service = service("v2", null, coalescingSender);
+
+            // When
+            service.sendMessage(TestDataFactory.createSampleAvroMessage()).join();
+        }
+
+        // Then
+        assertThat(v2Producer.history()).singleElement()
+                .satisfies(record -> assertThat(record.value().getMessageId()).isEqualTo(1001L));
+    }
+
+    private MessageProducerService service(String wireFormat, IdentifierInternTable internTable) {
+        return service(wireFormat, internTable, null);
+    }
+
+    private MessageProducerService service(String wireFormat, IdentifierInternTable internTable,
+                                           CoalescingSender coalescingSender) {
+        return new MessageProducerService(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> v1Producer)),
+                MessageRouter.singleTopic(TOPIC),
+                coalescingSender,
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> v2Producer)),
+                internTable,
+                null,
+                wireFormat,
+                ".v2");
+    }
+}
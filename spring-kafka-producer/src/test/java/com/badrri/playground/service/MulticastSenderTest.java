@@ -0,0 +1,140 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.model.TextMessageMapper;
+import com.badrri.playground.routing.MessageRouter;
+import com.badrri.playground.testutil.TestDataFactory;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MulticastSenderTest {
+
+    private static final String TOPIC = "text_message";
+    private static final int PARTITIONS = 4;
+    private static final List<String> RECEIVERS = IntStream.range(0, 40).mapToObj(i -> "receiver-" + i).toList();
+
+    private final SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+    private final KafkaAvroSerializer avroSerializer =
+            new KafkaAvroSerializer(schemaRegistry, Map.of("schema.registry.url", "mock://multicast"));
+    private MockProducer<String, byte[]> mockProducer;
+
+    @BeforeEach
+    void setUp() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(i -> new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}))
+                .toList();
+        Cluster cluster = new Cluster("test", List.of(node), partitions, Set.of(), Set.of());
+        mockProducer = new MockProducer<>(cluster, true, null, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Test
+    void shouldWriteSameBytesAsAvroSerializerForEachReceiverInV1() {
+        // Given
+        com.badrri.playground.avro.v2.TextMessage message = message(1001L);
+
+        // When
+        sender("v1", 100).send(message, RECEIVERS).join();
+
+        // Then
+        assertThat(mockProducer.history()).hasSize(RECEIVERS.size()).allSatisfy(record -> {
+            com.badrri.playground.avro.TextMessage expected = TextMessageMapper.toV1(
+                    com.badrri.playground.avro.v2.TextMessage.newBuilder(message).setReceiver(record.key()).build());
+            assertThat(record.value()).isEqualTo(avroSerializer.serialize(TOPIC, expected));
+        });
+    }
+
+    @Test
+    void shouldWriteSameBytesAsAvroSerializerForEachReceiverInV2() {
+        // Given
+        com.badrri.playground.avro.v2.TextMessage message = message(1L << 40);
+
+        // When
+        sender("v2", 100).send(message, RECEIVERS).join();
+
+        // Then
+        assertThat(mockProducer.history()).hasSize(RECEIVERS.size()).allSatisfy(record -> {
+            com.badrri.playground.avro.v2.TextMessage expected =
+                    com.badrri.playground.avro.v2.TextMessage.newBuilder(message).setReceiver(record.key()).build();
+            assertThat(record.value()).isEqualTo(avroSerializer.serialize(TOPIC, expected));
+        });
+    }
+
+    @Test
+    void shouldDecodeSplicedV2RecordsWithoutSenderInTheRegisteredSchema() {
+        // Given
+        com.badrri.playground.avro.v2.TextMessage message = TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Notice", "Body", null, null, 1L << 40, false));
+        KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer(schemaRegistry,
+                Map.of("schema.registry.url", "mock://multicast", "specific.avro.reader", true));
+
+        // When
+        sender("v2", 100).send(message, RECEIVERS).join();
+
+        // Then
+        assertThat(mockProducer.history()).hasSize(RECEIVERS.size()).allSatisfy(record -> {
+            var decoded = (com.badrri.playground.avro.v2.TextMessage) deserializer.deserialize(TOPIC, record.value());
+            assertThat(decoded).isEqualTo(
+                    com.badrri.playground.avro.v2.TextMessage.newBuilder(message).setReceiver(record.key()).build());
+        });
+    }
+
+    @Test
+    void shouldSendRecordsGroupedByDefaultPartitionerPartition() {
+        // When
+        sender("v1", 100).send(message(1001L), RECEIVERS).join();
+
+        // Then
+        List<Integer> partitions = mockProducer.history().stream().map(ProducerRecord::partition).toList();
+        assertThat(partitions).isSorted();
+        for (ProducerRecord<String, byte[]> record : mockProducer.history()) {
+            int expected = Utils.toPositive(Utils.murmur2(record.key().getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+            assertThat(record.partition()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void shouldRejectTooManyReceiversOrIdsTheWireFormatCannotCarry() {
+        // Given
+        MulticastSender sender = sender("v1", 10);
+
+        // When & Then
+        assertThatThrownBy(() -> sender.send(message(1001L), RECEIVERS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sender.send(message(1L << 40), List.of("receiver")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(mockProducer.history()).isEmpty();
+    }
+
+    private MulticastSender sender(String wireFormat, int maxReceivers) {
+        return new MulticastSender(new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer)),
+                schemaRegistry, MessageRouter.singleTopic(TOPIC), wireFormat, ".v2", maxReceivers);
+    }
+
+    private static com.badrri.playground.avro.v2.TextMessage message(long messageId) {
+        return TextMessageMapper.toAvroV2(
+                TestDataFactory.createRestDto("Notice", "A body shared by every receiver", "ops", null, messageId, true));
+    }
+}
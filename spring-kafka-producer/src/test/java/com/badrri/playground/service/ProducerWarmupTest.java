@@ -0,0 +1,133 @@
+package com.badrri.playground.service;
+
+import com.badrri.playground.cluster.ClusterHealth;
+import com.badrri.playground.cluster.KafkaCluster;
+import com.badrri.playground.cluster.MultiClusterSender;
+import com.badrri.playground.routing.MessageRouter;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProducerWarmupTest {
+
+    private static final String TOPIC = "text_message";
+
+    @Mock
+    private KafkaTemplate<String, com.badrri.playground.avro.TextMessage> kafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> eastTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> westTemplate;
+
+    @Mock
+    private MultiClusterSender multiClusterSender;
+
+    private final SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+    private final KafkaAvroSerializer avroSerializer =
+            new KafkaAvroSerializer(schemaRegistry, Map.of("schema.registry.url", "mock://warmup"));
+
+    @Test
+    void shouldRetryUntilWarmUpSucceeds() {
+        // Given
+        Node node = new Node(0, "localhost", 9092);
+        when(kafkaTemplate.partitionsFor(TOPIC))
+                .thenThrow(new TimeoutException("metadata not available"))
+                .thenReturn(List.of(new PartitionInfo(TOPIC, 0, node, new Node[]{node}, new Node[]{node})));
+        ProducerWarmup warmup = warmup(3);
+
+        // When
+        warmup.warmUpWithRetry();
+
+        // Then
+        verify(kafkaTemplate, times(2)).partitionsFor(TOPIC);
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.isDegraded()).isFalse();
+    }
+
+    @Test
+    void shouldMarkCompleteButDegradedAfterMaxAttempts() {
+        // Given
+        when(kafkaTemplate.partitionsFor(TOPIC)).thenThrow(new TimeoutException("metadata not available"));
+        ProducerWarmup warmup = warmup(3);
+
+        // When
+        warmup.warmUpWithRetry();
+
+        // Then
+        verify(kafkaTemplate, times(3)).partitionsFor(TOPIC);
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.isDegraded()).isTrue();
+    }
+
+    @Test
+    void shouldMarkCompleteButDegradedWhenInterruptedBetweenAttempts() {
+        // Given
+        when(kafkaTemplate.partitionsFor(TOPIC)).thenThrow(new TimeoutException("metadata not available"));
+        ProducerWarmup warmup = warmup(3);
+        Thread.currentThread().interrupt();
+
+        // When
+        warmup.warmUpWithRetry();
+
+        // Then
+        assertThat(Thread.interrupted()).isTrue();
+        verify(kafkaTemplate, times(1)).partitionsFor(TOPIC);
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.isDegraded()).isTrue();
+    }
+
+    @Test
+    void shouldWarmUpNamedClustersAndTakeUnreachableOnesOutOfRotation() {
+        // Given
+        KafkaCluster east = new KafkaCluster("east", eastTemplate, null, 1.0, new ClusterHealth(0.2, 50, 0.5));
+        KafkaCluster west = new KafkaCluster("west", westTemplate, null, 1.0, new ClusterHealth(0.2, 50, 0.5));
+        when(multiClusterSender.clusters()).thenReturn(List.of(east, west));
+        when(eastTemplate.partitionsFor(TOPIC)).thenReturn(List.of(partition()));
+        when(westTemplate.partitionsFor(TOPIC)).thenThrow(new TimeoutException("metadata not available"));
+        ProducerWarmup warmup = warmup(multiClusterSender, 3);
+
+        // When
+        warmup.warmUpWithRetry();
+
+        // Then
+        verify(kafkaTemplate, never()).partitionsFor(TOPIC);
+        assertThat(warmup.isComplete()).isTrue();
+        assertThat(warmup.isDegraded()).isFalse();
+        assertThat(east.health().isAvailable()).isTrue();
+        assertThat(west.health().isAvailable()).isFalse();
+    }
+
+    private static PartitionInfo partition() {
+        Node node = new Node(0, "localhost", 9092);
+        return new PartitionInfo(TOPIC, 0, node, new Node[]{node}, new Node[]{node});
+    }
+
+    private ProducerWarmup warmup(int maxAttempts) {
+        return warmup(null, maxAttempts);
+    }
+
+    private ProducerWarmup warmup(MultiClusterSender clusters, int maxAttempts) {
+        return new ProducerWarmup(kafkaTemplate, clusters, MessageRouter.singleTopic(TOPIC), schemaRegistry,
+                avroSerializer, 10, 1000, "v1", ".v2", maxAttempts, 1, 1);
+    }
+}
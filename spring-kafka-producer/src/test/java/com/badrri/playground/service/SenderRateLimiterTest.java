@@ -0,0 +1,111 @@
+package com.badrri.playground.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SenderRateLimiterTest {
+
+    @Test
+    void shouldAdmitBurstThenReject() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1, 1, 5, "", 60_000, 1_000, 100);
+
+        // When
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire("noisy") == 0) {
+                admitted++;
+            }
+        }
+
+        // Then
+        assertThat(admitted).isEqualTo(5);
+        assertThat(limiter.tryAcquire("noisy")).isPositive();
+    }
+
+    @Test
+    void shouldChargeEveryPermitOfAMultiPermitRequest() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1, 1, 5, "", 60_000, 1_000, 100);
+
+        // When & Then
+        assertThat(limiter.tryAcquire("fanout", 3)).isZero();
+        assertThat(limiter.tryAcquire("fanout", 3)).isPositive();
+        assertThat(limiter.tryAcquire("fanout", 2)).isZero();
+        assertThat(limiter.tryAcquire("fanout")).isPositive();
+    }
+
+    @Test
+    void shouldAdmitRequestOverBurstOnlyFromAFullBucket() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1, 1, 5, "", 60_000, 1_000, 100);
+
+        // When & Then
+        assertThat(limiter.tryAcquire("fanout", 50)).isZero();
+        assertThat(limiter.tryAcquire("fanout")).isPositive();
+        assertThat(limiter.tryAcquire("other", 1)).isZero();
+        assertThat(limiter.tryAcquire("other", 50)).isPositive();
+    }
+
+    @Test
+    void shouldIsolateSenders() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1, 1, 2, "", 60_000, 1_000, 100);
+        limiter.tryAcquire("noisy");
+        limiter.tryAcquire("noisy");
+
+        // When & Then
+        assertThat(limiter.tryAcquire("noisy")).isPositive();
+        assertThat(limiter.tryAcquire("quiet")).isZero();
+    }
+
+    @Test
+    void shouldSplitTotalRateByWeight() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(400, 1, 10, "billing:3", 60_000, 1_000, 100);
+        limiter.tryAcquire("billing");
+        limiter.tryAcquire("reports");
+
+        // When
+        limiter.rebalance();
+
+        // Then
+        assertThat(limiter.permitsPerSecond("billing")).isCloseTo(300, within(1.0));
+        assertThat(limiter.permitsPerSecond("reports")).isCloseTo(100, within(1.0));
+    }
+
+    @Test
+    void shouldEvictIdleSenders() throws InterruptedException {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1_000_000, 1, 1, "", 1, 1, 100);
+        limiter.tryAcquire("one-off");
+
+        // When
+        Thread.sleep(20);
+        limiter.rebalance();
+
+        // Then
+        assertThat(limiter.bucketCount()).isZero();
+    }
+
+    @Test
+    void shouldSendNewSendersToSharedOverflowBucketOnceFull() {
+        // Given
+        SenderRateLimiter limiter = new SenderRateLimiter(1, 1, 1, "billing:2", 60_000, 1_000, 2);
+        limiter.tryAcquire("first");
+        limiter.tryAcquire("second");
+
+        // When
+        long rotated = limiter.tryAcquire("rotated-1");
+        long rotatedAgain = limiter.tryAcquire("rotated-2");
+        long weighted = limiter.tryAcquire("billing");
+
+        // Then
+        assertThat(rotated).isZero();
+        assertThat(rotatedAgain).isPositive();
+        assertThat(weighted).isZero();
+        assertThat(limiter.bucketCount()).isEqualTo(3);
+    }
+}
@@ -10,13 +10,13 @@ public class TestDataFactory {
                 "Test Body Content",
                 "sender123",
                 "receiver456",
-                1001,
+                1001L,
                 false
         );
     }
 
     public static TextMessage createRestDto(String title, String body, String sender,
-                                            String receiver, Integer messageId, Boolean isImportant) {
+                                            String receiver, Long messageId, Boolean isImportant) {
         return new TextMessage(title, body, sender, receiver, messageId, isImportant);
     }
 
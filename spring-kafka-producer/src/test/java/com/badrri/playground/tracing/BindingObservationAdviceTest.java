@@ -0,0 +1,65 @@
+package com.badrri.playground.tracing;
+
+import com.badrri.playground.model.TextMessage;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class BindingObservationAdviceTest {
+
+    private final TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+    private final BindingObservationAdvice advice = new BindingObservationAdvice(observationRegistry);
+    private final ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(new MockHttpServletRequest());
+
+    private ServletRequestAttributes attributes;
+
+    @BeforeEach
+    void setUp() {
+        attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldStopObservationOnceBodyIsBound() {
+        // When
+        TextMessage body = new TextMessage("Title", "Body", "user123", "user456", 1L, false);
+        advice.beforeBodyRead(inputMessage, null, TextMessage.class, MappingJackson2HttpMessageConverter.class);
+        advice.afterBodyRead(body, inputMessage, null, TextMessage.class, MappingJackson2HttpMessageConverter.class);
+        attributes.requestCompleted();
+
+        // Then
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(BindingObservationAdvice.OBSERVATION_NAME)
+                .that()
+                .hasBeenStopped()
+                .doesNotHaveError();
+    }
+
+    @Test
+    void shouldStopObservationWithErrorWhenBindingThrows() {
+        // Given
+        advice.beforeBodyRead(inputMessage, null, TextMessage.class, MappingJackson2HttpMessageConverter.class);
+
+        // When the converter throws, afterBodyRead is never called
+        attributes.requestCompleted();
+
+        // Then
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(BindingObservationAdvice.OBSERVATION_NAME)
+                .that()
+                .hasBeenStopped()
+                .hasError();
+    }
+}
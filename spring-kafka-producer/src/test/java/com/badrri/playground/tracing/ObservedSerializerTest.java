@@ -0,0 +1,50 @@
+package com.badrri.playground.tracing;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObservedSerializerTest {
+
+    private final TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+    private final ObservedSerializer<String> serializer =
+            new ObservedSerializer<>(new StringSerializer(), observationRegistry);
+
+    @Test
+    void shouldObserveSerializationPerTopic() {
+        // When
+        byte[] bytes = serializer.serialize("text_message", new RecordHeaders(), "payload");
+
+        // Then
+        assertThat(bytes).isEqualTo("payload".getBytes(StandardCharsets.UTF_8));
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(ObservedSerializer.OBSERVATION_NAME)
+                .that()
+                .hasLowCardinalityKeyValue("messaging.destination.name", "text_message")
+                .hasBeenStarted()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void shouldRecordSerializationFailures() {
+        // Given
+        ObservedSerializer<String> failing = new ObservedSerializer<>((topic, data) -> {
+            throw new IllegalStateException("schema registry unavailable");
+        }, observationRegistry);
+
+        // When / Then
+        assertThatThrownBy(() -> failing.serialize("text_message", "payload"))
+                .isInstanceOf(IllegalStateException.class);
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo(ObservedSerializer.OBSERVATION_NAME)
+                .that()
+                .hasError();
+    }
+}
@@ -0,0 +1,191 @@
+package com.badrri.playground.websocket;
+
+import com.badrri.playground.delivery.DelayedDeliveryScheduler;
+import com.badrri.playground.service.MessageProducerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageWebSocketHandlerTest {
+
+    @Mock
+    private MessageProducerService messageProducerService;
+
+    @Mock
+    private DelayedDeliveryScheduler deliveryScheduler;
+
+    @Mock
+    private WebSocketSession session;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MessageWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(session.getId()).thenReturn("session-1");
+        lenient().when(session.isOpen()).thenReturn(true);
+        handler = new MessageWebSocketHandler(messageProducerService, null, deliveryScheduler, objectMapper, 4, 20,
+                false);
+        handler.afterConnectionEstablished(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    @Test
+    void shouldAckThroughHighestContiguousSettledSequence() throws Exception {
+        // Given
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+        CompletableFuture<Void> third = new CompletableFuture<>();
+        when(messageProducerService.sendMessage(any())).thenReturn(first, second, third);
+        handler.handleMessage(session, frame(1));
+        handler.handleMessage(session, frame(2));
+        handler.handleMessage(session, frame(3));
+
+        // When
+        first.complete(null);
+        third.complete(null);
+        handler.flushAcks();
+
+        // Then
+        MessageWebSocketHandler.AckFrame ack = lastAck(1);
+        assertThat(ack.ackedThrough()).isEqualTo(1);
+        assertThat(ack.failures()).isEmpty();
+
+        // When
+        second.completeExceptionally(new IllegalStateException("broker down"));
+        handler.flushAcks();
+
+        // Then
+        ack = lastAck(2);
+        assertThat(ack.ackedThrough()).isEqualTo(3);
+        assertThat(ack.failures()).extracting(MessageWebSocketHandler.Failure::seq).containsExactly(2L);
+    }
+
+    @Test
+    void shouldNotSendAckWhenNothingSettled() throws Exception {
+        // Given
+        when(messageProducerService.sendMessage(any())).thenReturn(new CompletableFuture<>());
+        handler.handleMessage(session, frame(1));
+
+        // When
+        handler.flushAcks();
+
+        // Then
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void shouldFailFramesBeyondInFlightWindow() throws Exception {
+        // Given
+        when(messageProducerService.sendMessage(any())).thenReturn(new CompletableFuture<>());
+
+        // When
+        for (int seq = 1; seq <= 6; seq++) {
+            handler.handleMessage(session, frame(seq));
+        }
+
+        // Then
+        verify(messageProducerService, times(4)).sendMessage(any());
+    }
+
+    @Test
+    void shouldScheduleFrameWithFutureDeliverAtAndAckOncePersisted() throws Exception {
+        // Given
+        Instant deliverAt = Instant.now().plusSeconds(3600);
+        CompletableFuture<Void> persisted = new CompletableFuture<>();
+        when(messageProducerService.canCarry(any())).thenReturn(true);
+        when(deliveryScheduler.schedule(any(), eq(deliverAt.toEpochMilli()))).thenReturn(persisted);
+
+        // When
+        handler.handleMessage(session, scheduledFrame(1, deliverAt));
+        handler.flushAcks();
+        persisted.complete(null);
+        handler.flushAcks();
+
+        // Then
+        assertThat(lastAck(1).ackedThrough()).isEqualTo(1);
+        verify(messageProducerService, never()).sendMessage(any());
+    }
+
+    @Test
+    void shouldFailScheduledFrameWhenSchedulingIsDisabled() throws Exception {
+        // Given
+        handler.close();
+        handler = new MessageWebSocketHandler(messageProducerService, null, null, objectMapper, 4, 20, false);
+        handler.afterConnectionEstablished(session);
+
+        // When
+        handler.handleMessage(session, scheduledFrame(1, Instant.now().plusSeconds(3600)));
+        handler.flushAcks();
+
+        // Then
+        MessageWebSocketHandler.AckFrame ack = lastAck(1);
+        assertThat(ack.failures()).extracting(MessageWebSocketHandler.Failure::error)
+                .containsExactly("Scheduled delivery is disabled");
+        verify(messageProducerService, never()).sendMessage(any());
+    }
+
+    @Test
+    void shouldCloseSessionOnMalformedFrame() throws Exception {
+        // When
+        handler.handleMessage(session, new TextMessage("not json"));
+
+        // Then
+        verify(session).close(any(CloseStatus.class));
+        verify(messageProducerService, never()).sendMessage(any());
+    }
+
+    @Test
+    void shouldForgetSessionOnClose() {
+        // When
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Then
+        assertThat(handler.sessionCount()).isZero();
+    }
+
+    private static TextMessage frame(long seq) {
+        return new TextMessage("""
+                {"seq": %d, "message": {"title": "Test", "body": "Body", "sender": "user 1",
+                 "receiver": "user 2", "messageId": %d, "isImportant": false}}
+                """.formatted(seq, seq));
+    }
+
+    private static TextMessage scheduledFrame(long seq, Instant deliverAt) {
+        return new TextMessage("""
+                {"seq": %d, "message": {"title": "Test", "body": "Body", "sender": "user 1",
+                 "receiver": "user 2", "messageId": %d, "isImportant": false, "deliverAt": "%s"}}
+                """.formatted(seq, seq, deliverAt));
+    }
+
+    private MessageWebSocketHandler.AckFrame lastAck(int expectedAcks) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(expectedAcks)).sendMessage(captor.capture());
+        return objectMapper.readValue(captor.getValue().getPayload(), MessageWebSocketHandler.AckFrame.class);
+    }
+}
@@ -0,0 +1,127 @@
+#!/bin/bash
+
+# Startup benchmark for the Kafka Producer service
+# Measures time to the first acknowledged publish and resident memory (RSS) for each build mode.
+# Requires Kafka and Schema Registry from ../docker-compose.yml.
+# Usage: ./startup-benchmark.sh [jvm] [aot-cds] [native]   (default: all three)
+
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+  MODES=(jvm aot-cds native)
+fi
+
+PORT=8082
+JAR=playground-0.0.1-SNAPSHOT.jar
+LOG_DIR=build/startup-benchmark
+# Give up on a mode that has not published and been acked within this many ms
+STARTUP_TIMEOUT_MS=120000
+mkdir -p "$LOG_DIR"
+
+now_ms() {
+  date +%s%3N
+}
+
+build_mode() {
+  case "$1" in
+    jvm)     ./gradlew -q bootJar ;;
+    aot-cds) ./gradlew -q cdsArchive -Paot ;;
+    native)  ./gradlew -q nativeCompile -Pnative ;;
+  esac
+}
+
+# Sets pid rather than echoing it: a command substitution would start the app in a subshell, where this
+# shell could not wait for it
+start_mode() {
+  local log="$2"
+  case "$1" in
+    jvm)
+      java -jar "build/libs/$JAR" > "$log" 2>&1 &
+      ;;
+    aot-cds)
+      # exec keeps the java process as the pid of the background job
+      (cd build/cds && exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$JAR") > "$log" 2>&1 &
+      ;;
+    native)
+      build/native/nativeCompile/playground > "$log" 2>&1 &
+      ;;
+  esac
+  pid=$!
+}
+
+# kill -0 also succeeds on a child that has exited but not been reaped, so check for a zombie too
+is_running() {
+  local state
+  state=$(ps -o stat= -p "$1" 2>/dev/null) || return 1
+  [[ $state != Z* ]]
+}
+
+stop_mode() {
+  local pid="$1"
+  kill "$pid" 2>/dev/null
+  for _ in $(seq 100); do
+    is_running "$pid" || break
+    sleep 0.1
+  done
+  if is_running "$pid"; then
+    echo "PID $pid did not exit after SIGTERM, sending SIGKILL" >&2
+    kill -9 "$pid" 2>/dev/null
+  fi
+  wait "$pid" 2>/dev/null
+}
+
+publish() {
+  curl -s -o /dev/null -w "%{http_code}" -X POST "http://localhost:$PORT/api/messages" \
+    -H "Content-Type: application/json" \
+    -d '{
+      "title": "Startup Benchmark",
+      "body": "First publish after startup",
+      "sender": "startup-benchmark",
+      "receiver": "startup-benchmark",
+      "messageId": 1,
+      "isImportant": false
+    }'
+}
+
+printf "%-10s %22s %12s\n" "MODE" "FIRST PUBLISH (ms)" "RSS (MB)"
+
+for mode in "${MODES[@]}"; do
+  echo "Building $mode..." >&2
+  if ! build_mode "$mode"; then
+    echo "Build failed for $mode, skipping" >&2
+    continue
+  fi
+
+  log="$LOG_DIR/$mode.log"
+  start=$(now_ms)
+  deadline=$(( start + STARTUP_TIMEOUT_MS ))
+  start_mode "$mode" "$log"
+
+  # Keep knocking until the controller accepts a message, then wait for the broker ack in the log
+  until [ "$(publish)" = "202" ]; do
+    if ! is_running "$pid"; then
+      wait "$pid"
+      echo "$mode exited with status $? during startup, see $log" >&2
+      continue 2
+    fi
+    if [ "$(now_ms)" -ge "$deadline" ]; then
+      echo "$mode did not accept a message within ${STARTUP_TIMEOUT_MS} ms, see $log" >&2
+      stop_mode "$pid"
+      continue 2
+    fi
+    sleep 0.05
+  done
+  until grep -q "Sent message=" "$log"; do
+    if [ "$(now_ms)" -ge "$deadline" ]; then
+      echo "$mode did not log a broker ack within ${STARTUP_TIMEOUT_MS} ms, see $log" >&2
+      stop_mode "$pid"
+      continue 2
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+
+  rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status" 2>/dev/null || ps -o rss= -p "$pid")
+  printf "%-10s %22s %12s\n" "$mode" "$elapsed" "$(( rss_kb / 1024 ))"
+
+  stop_mode "$pid"
+done